@@ -0,0 +1,93 @@
+package com.github.stepwise.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.stepwise.entity.AcademicWork;
+import com.github.stepwise.entity.AcademicWorkDeadline;
+import com.github.stepwise.entity.DefenseRegistration;
+import com.github.stepwise.entity.DefenseSchedule;
+import com.github.stepwise.entity.ExplanatoryNoteItem;
+import com.github.stepwise.entity.ItemHistory;
+import com.github.stepwise.entity.Profile;
+import com.github.stepwise.entity.Project;
+import com.github.stepwise.entity.ProjectProgress;
+import com.github.stepwise.entity.StudyGroup;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.entity.WorkTemplate;
+import com.github.stepwise.entity.WorkTemplateChapter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+
+/**
+ * In-memory H2 persistence unit over the application entities, without Spring
+ * Boot and with Envers switched off, so benchmarks measure the queries issued
+ * by the code under test and nothing else.
+ */
+final class BenchmarkPersistence implements AutoCloseable {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JpaRepositoryFactory repositoryFactory;
+
+    BenchmarkPersistence(String name) {
+        entityManagerFactory = new PersistenceConfiguration(name)
+                .managedClass(User.class)
+                .managedClass(Profile.class)
+                .managedClass(StudyGroup.class)
+                .managedClass(WorkTemplate.class)
+                .managedClass(WorkTemplateChapter.class)
+                .managedClass(AcademicWork.class)
+                .managedClass(AcademicWorkDeadline.class)
+                .managedClass(DefenseSchedule.class)
+                .managedClass(DefenseRegistration.class)
+                .managedClass(Project.class)
+                .managedClass(ExplanatoryNoteItem.class)
+                .managedClass(ItemHistory.class)
+                .managedClass(ProjectProgress.class)
+                .property(PersistenceConfiguration.JDBC_URL,
+                        "jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .property(PersistenceConfiguration.JDBC_USER, "sa")
+                .property(PersistenceConfiguration.JDBC_PASSWORD, "")
+                .property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "drop-and-create")
+                .property("hibernate.integration.envers.enabled", "false")
+                .property("hibernate.generate_statistics", "true")
+                .createEntityManagerFactory();
+
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        repositoryFactory = new JpaRepositoryFactory(entityManager);
+    }
+
+    <T> T repository(Class<T> repositoryInterface) {
+        return repositoryFactory.getRepository(repositoryInterface);
+    }
+
+    EntityManager entityManager() {
+        return entityManager;
+    }
+
+    TransactionTemplate transactions() {
+        return transactionTemplate;
+    }
+
+    Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+    }
+
+}
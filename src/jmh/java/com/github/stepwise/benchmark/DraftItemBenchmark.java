@@ -0,0 +1,251 @@
+package com.github.stepwise.benchmark;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.github.stepwise.configuration.FileUploadConfig;
+import com.github.stepwise.configuration.MinioConfig;
+import com.github.stepwise.configuration.ProjectProgressConfig;
+import com.github.stepwise.entity.AcademicWork;
+import com.github.stepwise.entity.ExplanatoryNoteItem;
+import com.github.stepwise.entity.ItemHistory;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.entity.Project;
+import com.github.stepwise.entity.ProjectType;
+import com.github.stepwise.entity.StudyGroup;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.entity.WorkTemplate;
+import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.repository.ProjectProgressRepository;
+import com.github.stepwise.repository.ProjectRepository;
+import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.service.ExplanatoryNoteItemService;
+import com.github.stepwise.service.ObjectFileCache;
+import com.github.stepwise.service.ProjectProgressService;
+import com.github.stepwise.service.StorageService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Re-uploading a draft for a project that already has {@code items} chapters
+ * with {@code historyPerItem} history rows each: the former draftItem (full
+ * project graph load plus two saves) against the targeted queries. Each call
+ * is flushed and rolled back so the data set stays the same across
+ * invocations; the SQL statement count per call is printed at tear-down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DraftItemBenchmark {
+
+    @Param({ "5", "20" })
+    public int items;
+
+    @Param({ "10", "50" })
+    public int historyPerItem;
+
+    private BenchmarkPersistence persistence;
+
+    private ProjectRepository projectRepository;
+
+    private UserRepository userRepository;
+
+    private ExplanatoryNoteItemService service;
+
+    private MultipartFile file;
+
+    private Long studentId;
+
+    private Long projectId;
+
+    private long legacyCalls;
+
+    private long legacyStatements;
+
+    private long targetedCalls;
+
+    private long targetedStatements;
+
+    @Setup
+    public void setUp() throws IOException {
+        persistence = new BenchmarkPersistence("draft_item");
+        projectRepository = persistence.repository(ProjectRepository.class);
+        userRepository = persistence.repository(UserRepository.class);
+
+        FileUploadConfig fileUploadConfig = new FileUploadConfig();
+        fileUploadConfig.setAllowedMimeTypes(List.of("application/pdf"));
+
+        StorageService storageService = new StorageService(null, null) {
+            @Override
+            public StagedFile stageExplanatoryFile(MultipartFile file) {
+                return new StagedFile(STAGING_PREFIX + "benchmark", null);
+            }
+        };
+
+        service = new ExplanatoryNoteItemService(
+                projectRepository,
+                persistence.repository(ExplanatoryNoteRepository.class),
+                persistence.repository(ItemHistoryRepository.class),
+                fileUploadConfig,
+                storageService,
+                userRepository,
+                persistence.transactions(),
+                event -> {
+                },
+                new ObjectFileCache(storageService, new MinioConfig(), new SimpleMeterRegistry()),
+                new ProjectProgressService(
+                        persistence.repository(ProjectProgressRepository.class),
+                        persistence.repository(ExplanatoryNoteRepository.class),
+                        new ProjectProgressConfig(),
+                        persistence.transactions()));
+
+        file = new MockMultipartFile("file", "chapter.pdf", "application/pdf", new byte[1024]);
+
+        persistence.transactions().executeWithoutResult(status -> seed(persistence.entityManager()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (legacyCalls > 0) {
+            System.out.printf("%nlegacy: %.1f SQL statements per call%n", (double) legacyStatements / legacyCalls);
+        }
+        if (targetedCalls > 0) {
+            System.out.printf("%ntargeted: %.1f SQL statements per call%n",
+                    (double) targetedStatements / targetedCalls);
+        }
+        persistence.close();
+    }
+
+    @Benchmark
+    public Long legacy() {
+        long before = statements().getPrepareStatementCount();
+        Long historyId = persistence.transactions().execute(status -> {
+            Long id = legacyDraft(studentId, projectId, file);
+            persistence.entityManager().flush();
+            status.setRollbackOnly();
+            return id;
+        });
+        legacyStatements += statements().getPrepareStatementCount() - before;
+        legacyCalls++;
+        return historyId;
+    }
+
+    @Benchmark
+    public void targeted() {
+        long before = statements().getPrepareStatementCount();
+        persistence.transactions().executeWithoutResult(status -> {
+            try {
+                service.draftItem(studentId, projectId, file);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            persistence.entityManager().flush();
+            status.setRollbackOnly();
+        });
+        targetedStatements += statements().getPrepareStatementCount() - before;
+        targetedCalls++;
+    }
+
+    private Long legacyDraft(Long userId, Long projectId, MultipartFile file) {
+        Project project = projectRepository.findById(projectId).orElseThrow();
+
+        if (!project.getStudent().getId().equals(userId)) {
+            throw new IllegalStateException("Not the owner of project " + projectId);
+        }
+
+        List<ExplanatoryNoteItem> items = project.getItems();
+        items.sort(Comparator.comparing(ExplanatoryNoteItem::getOrderNumber));
+
+        User changedBy = userRepository.findById(userId).orElseThrow();
+
+        ExplanatoryNoteItem item = items.getLast();
+        item.setStatus(ItemStatus.DRAFT);
+
+        Project savedProject = projectRepository.save(project);
+        item = savedProject.getItems().getLast();
+
+        item.getHistory().add(ItemHistory.builder()
+                .item(item)
+                .previousStatus(item.getHistory().isEmpty() ? null : item.getHistory().getLast().getNewStatus())
+                .newStatus(ItemStatus.DRAFT)
+                .changedAt(LocalDateTime.now())
+                .changedBy(changedBy)
+                .fileName(file.getOriginalFilename())
+                .build());
+        projectRepository.save(savedProject);
+
+        return item.getHistory().getLast().getId();
+    }
+
+    private void seed(EntityManager em) {
+        User teacher = User.builder().username("teacher").password("x").email("teacher@example.com")
+                .role(UserRole.TEACHER).build();
+        User student = User.builder().username("student").password("x").email("student@example.com")
+                .role(UserRole.STUDENT).build();
+        em.persist(teacher);
+        em.persist(student);
+
+        StudyGroup group = StudyGroup.builder().name("group").students(new ArrayList<>(List.of(student))).build();
+        em.persist(group);
+
+        WorkTemplate template = WorkTemplate.builder()
+                .templateTitle("template")
+                .workTitle("work")
+                .countOfChapters(items + 1)
+                .type(ProjectType.COURSEWORK)
+                .teacher(teacher)
+                .build();
+        em.persist(template);
+
+        AcademicWork work = AcademicWork.builder().group(group).workTemplate(template).build();
+        em.persist(work);
+
+        Project project = Project.builder().title("project").student(student).academicWork(work).build();
+        em.persist(project);
+
+        for (int i = 0; i < items; i++) {
+            boolean last = i == items - 1;
+            ExplanatoryNoteItem item = new ExplanatoryNoteItem(i, last ? ItemStatus.DRAFT : ItemStatus.APPROVED,
+                    project);
+            em.persist(item);
+            for (int h = 0; h < historyPerItem; h++) {
+                em.persist(ItemHistory.builder()
+                        .item(item)
+                        .previousStatus(h == 0 ? null : ItemStatus.DRAFT)
+                        .newStatus(ItemStatus.DRAFT)
+                        .changedAt(LocalDateTime.now())
+                        .changedBy(h % 2 == 0 ? student : teacher)
+                        .fileName("chapter-" + i + "-" + h + ".pdf")
+                        .build());
+            }
+        }
+
+        studentId = student.getId();
+        projectId = project.getId();
+    }
+
+    private Statistics statements() {
+        return persistence.statistics();
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.github.stepwise.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.utils.JwtUtil;
+import com.github.stepwise.utils.JwtValidationResult;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Per-request cost of authenticating a bearer token: the former
+ * validate-then-parse flow (two parser builds, two HMAC checks) against a
+ * single parse on the shared parser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "very-very-secure-secret-key-that-is-at-least-32-characters-long";
+
+    private JwtUtil jwtUtil;
+
+    private SecretKey key;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtConfigurationProperties config = new JwtConfigurationProperties();
+        config.setSecret(SECRET);
+        config.setExpiration(3_600_000);
+
+        jwtUtil = new JwtUtil(config);
+        jwtUtil.init();
+
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        token = jwtUtil.generateToken(User.builder()
+                .id(42L)
+                .username("student")
+                .role(UserRole.STUDENT)
+                .build());
+    }
+
+    @Benchmark
+    public void legacyValidateThenParse(Blackhole bh) {
+        Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+        bh.consume(Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Benchmark
+    public JwtValidationResult singleParse() {
+        return jwtUtil.validate(token);
+    }
+
+}
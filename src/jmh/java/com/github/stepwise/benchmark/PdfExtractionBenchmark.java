@@ -0,0 +1,93 @@
+package com.github.stepwise.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.stepwise.utils.PdfText;
+
+/**
+ * Extracting the summary prompt text (first 7000 chars) from a generated
+ * report of {@code pages} pages: the former readAllBytes plus full-document
+ * strip against the file-backed, page-by-page extraction. Compare the
+ * gc.alloc.rate.norm column of the gc profiler for heap usage per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PdfExtractionBenchmark {
+
+    private static final int MAX_TEXT_LENGTH = 7000;
+
+    private static final int LINES_PER_PAGE = 40;
+
+    @Param({ "200" })
+    public int pages;
+
+    private Path pdf;
+
+    @Setup
+    public void setUp() throws IOException {
+        pdf = Files.createTempFile("benchmark-report-", ".pdf");
+
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(font, 10);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 740);
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        content.showText("Chapter " + i + ", line " + line
+                                + ": the system architecture is described in terms of modules and interfaces.");
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(pdf.toFile());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(pdf);
+    }
+
+    @Benchmark
+    public String readAllBytes() throws IOException {
+        try (InputStream is = Files.newInputStream(pdf);
+                PDDocument document = Loader.loadPDF(is.readAllBytes())) {
+            String text = new PDFTextStripper().getText(document).trim();
+            return text.length() > MAX_TEXT_LENGTH ? text.substring(0, MAX_TEXT_LENGTH) : text;
+        }
+    }
+
+    @Benchmark
+    public String pageByPage() throws IOException {
+        return PdfText.extract(pdf, MAX_TEXT_LENGTH);
+    }
+
+}
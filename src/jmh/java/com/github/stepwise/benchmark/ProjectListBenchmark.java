@@ -0,0 +1,184 @@
+package com.github.stepwise.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.github.stepwise.entity.AcademicWork;
+import com.github.stepwise.entity.ExplanatoryNoteItem;
+import com.github.stepwise.entity.ItemHistory;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.entity.Profile;
+import com.github.stepwise.entity.Project;
+import com.github.stepwise.entity.ProjectType;
+import com.github.stepwise.entity.StudyGroup;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.entity.WorkTemplate;
+import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ProjectRepository;
+import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.service.ProjectService;
+import com.github.stepwise.web.dto.ProjectResponseDto;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * The teacher's project list of a work with {@code students} projects of
+ * {@code items} chapters, each with {@code historyPerItem} history rows: the
+ * entity graph mapped through ProjectResponseDto against the flat projection
+ * rows. The SQL statement count per call is printed at tear-down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProjectListBenchmark {
+
+    @Param({ "200" })
+    public int students;
+
+    @Param({ "5" })
+    public int items;
+
+    @Param({ "10" })
+    public int historyPerItem;
+
+    private BenchmarkPersistence persistence;
+
+    private ProjectService service;
+
+    private Long workId;
+
+    private long entityCalls;
+
+    private long entityStatements;
+
+    private long projectionCalls;
+
+    private long projectionStatements;
+
+    @Setup
+    public void setUp() {
+        persistence = new BenchmarkPersistence("project_list");
+        service = new ProjectService(
+                persistence.repository(ProjectRepository.class),
+                persistence.repository(ExplanatoryNoteRepository.class),
+                persistence.repository(UserRepository.class),
+                null,
+                null);
+
+        persistence.transactions().executeWithoutResult(status -> seed(persistence.entityManager()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (entityCalls > 0) {
+            System.out.printf("%nentities: %.1f SQL statements per call%n", (double) entityStatements / entityCalls);
+        }
+        if (projectionCalls > 0) {
+            System.out.printf("%nprojection: %.1f SQL statements per call%n",
+                    (double) projectionStatements / projectionCalls);
+        }
+        persistence.close();
+    }
+
+    @Benchmark
+    public List<ProjectResponseDto> entities() {
+        long before = statements().getPrepareStatementCount();
+        List<ProjectResponseDto> dtos = persistence.transactions().execute(status -> service.getAllByWorkId(workId))
+                .stream()
+                .map(project -> ProjectResponseDto.fromEntity(project, true))
+                .toList();
+        entityStatements += statements().getPrepareStatementCount() - before;
+        entityCalls++;
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ProjectResponseDto> projection() {
+        long before = statements().getPrepareStatementCount();
+        List<ProjectResponseDto> dtos = persistence.transactions()
+                .execute(status -> service.getOverviewByWorkId(workId));
+        projectionStatements += statements().getPrepareStatementCount() - before;
+        projectionCalls++;
+        return dtos;
+    }
+
+    private void seed(EntityManager em) {
+        User teacher = user("teacher", UserRole.TEACHER);
+        em.persist(teacher);
+
+        List<User> members = new ArrayList<>();
+        for (int i = 0; i < students; i++) {
+            User student = user("student" + i, UserRole.STUDENT);
+            em.persist(student);
+            members.add(student);
+        }
+
+        StudyGroup group = StudyGroup.builder().name("group").students(members).build();
+        em.persist(group);
+
+        WorkTemplate template = WorkTemplate.builder()
+                .templateTitle("template")
+                .workTitle("work")
+                .countOfChapters(items)
+                .type(ProjectType.COURSEWORK)
+                .teacher(teacher)
+                .build();
+        em.persist(template);
+
+        AcademicWork work = AcademicWork.builder().group(group).workTemplate(template).build();
+        em.persist(work);
+
+        for (User student : members) {
+            Project project = Project.builder().title("project").student(student).academicWork(work).build();
+            em.persist(project);
+
+            for (int i = 0; i < items; i++) {
+                boolean last = i == items - 1;
+                ExplanatoryNoteItem item = new ExplanatoryNoteItem(i, last ? ItemStatus.DRAFT : ItemStatus.SUBMITTED,
+                        project);
+                em.persist(item);
+                for (int h = 0; h < historyPerItem; h++) {
+                    em.persist(ItemHistory.builder()
+                            .item(item)
+                            .previousStatus(h == 0 ? null : ItemStatus.DRAFT)
+                            .newStatus(ItemStatus.DRAFT)
+                            .changedAt(LocalDateTime.now())
+                            .changedBy(h % 2 == 0 ? student : teacher)
+                            .fileName("chapter-" + i + "-" + h + ".pdf")
+                            .build());
+                }
+            }
+        }
+
+        workId = work.getId();
+    }
+
+    private static User user(String username, UserRole role) {
+        return User.builder()
+                .username(username)
+                .password("x")
+                .email(username + "@example.com")
+                .role(role)
+                .profile(Profile.builder().firstName(username).lastName("Benchmark").build())
+                .build();
+    }
+
+    private Statistics statements() {
+        return persistence.statistics();
+    }
+
+}
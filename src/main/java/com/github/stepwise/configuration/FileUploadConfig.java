@@ -3,6 +3,7 @@ package com.github.stepwise.configuration;
 import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 
 import lombok.Data;
 
@@ -13,4 +14,6 @@ public class FileUploadConfig {
 
     private List<String> allowedMimeTypes;
 
+    private DataSize maxStreamSize = DataSize.ofMegabytes(50);
+
 }
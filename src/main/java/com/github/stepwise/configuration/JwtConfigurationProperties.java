@@ -1,5 +1,7 @@
 package com.github.stepwise.configuration;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -14,4 +16,32 @@ public class JwtConfigurationProperties {
 
     private int expiration;
 
+    private Duration refreshExpiration = Duration.ofDays(30);
+
+    private boolean stateless;
+
+    private Duration tokenVersionTtl = Duration.ofSeconds(30);
+
+    private PrincipalCache principalCache = new PrincipalCache();
+
+    private VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache();
+
+    @Data
+    public static class PrincipalCache {
+
+        private long maxSize = 10_000;
+
+        private Duration ttl = Duration.ofMinutes(5);
+
+    }
+
+    @Data
+    public static class VerifiedTokenCache {
+
+        private boolean enabled;
+
+        private long maxSize = 50_000;
+
+    }
+
 }
@@ -5,6 +5,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -21,6 +24,31 @@ public class MinioConfig {
 
   private List<String> bucketNames = new ArrayList<String>();
 
+  private Duration stagingGracePeriod = Duration.ofHours(1);
+
+  private DataSize streamPartSize = DataSize.ofMegabytes(5);
+
+  private Duration presignedUrlExpiry = Duration.ofMinutes(5);
+
+  private int maxInFlight = 16;
+
+  private boolean contentAddressed = false;
+
+  private int blobMigrationBatchSize = 100;
+
+  private Cache cache = new Cache();
+
+  @Data
+  public static class Cache {
+
+    private boolean enabled;
+
+    private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "stepwise-object-cache");
+
+    private DataSize maxSize = DataSize.ofGigabytes(1);
+
+  }
+
   @Bean
   public MinioClient minioClient() throws Exception {
 
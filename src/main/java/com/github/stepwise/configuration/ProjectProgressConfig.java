@@ -0,0 +1,21 @@
+package com.github.stepwise.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "project-progress")
+public class ProjectProgressConfig {
+
+    private Duration repairInterval = Duration.ofHours(6);
+
+    private Duration repairInitialDelay = Duration.ofMinutes(1);
+
+    private int repairBatchSize = 200;
+
+}
@@ -0,0 +1,42 @@
+package com.github.stepwise.configuration;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "summary")
+public class SummaryConfig {
+
+    private int workers = 4;
+
+    private int queueCapacity = 100;
+
+    private int maxAttempts = 3;
+
+    private Duration initialBackoff = Duration.ofSeconds(2);
+
+    private Duration jobTtl = Duration.ofHours(1);
+
+    private int chunkChars = 6000;
+
+    private int maxConcurrentCalls = 4;
+
+    private Precompute precompute = new Precompute();
+
+    @Data
+    public static class Precompute {
+
+        private boolean enabled = true;
+
+        private int maxConcurrent = 2;
+
+        private int dailyBudget = 200;
+
+    }
+
+}
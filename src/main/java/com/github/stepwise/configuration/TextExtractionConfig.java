@@ -0,0 +1,19 @@
+package com.github.stepwise.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "text-extraction")
+public class TextExtractionConfig {
+
+    private int workers = 2;
+
+    private int queueCapacity = 100;
+
+    private int maxChars = 200_000;
+
+}
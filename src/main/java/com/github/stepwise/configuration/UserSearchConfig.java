@@ -0,0 +1,19 @@
+package com.github.stepwise.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-search")
+public class UserSearchConfig {
+
+    private Mode mode = Mode.TRIGRAM;
+
+    public enum Mode {
+        LIKE, TRIGRAM
+    }
+
+}
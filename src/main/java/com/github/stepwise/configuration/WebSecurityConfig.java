@@ -21,7 +21,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.github.stepwise.security.AuthEntryPointJwt;
 import com.github.stepwise.security.AuthTokenFilter;
-import com.github.stepwise.security.UserDetailsServiceImpl;
+import com.github.stepwise.security.PrincipalCache;
+import com.github.stepwise.security.TokenVersionCache;
+import com.github.stepwise.security.VerifiedTokenCache;
 import com.github.stepwise.utils.JwtUtil;
 
 import lombok.RequiredArgsConstructor;
@@ -37,11 +39,18 @@ public class WebSecurityConfig {
 
     private final JwtUtil jwtUtil;
 
-    private final UserDetailsServiceImpl userDetailsService;
+    private final PrincipalCache principalCache;
+
+    private final TokenVersionCache tokenVersionCache;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final JwtConfigurationProperties jwtConfig;
 
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
-        return new AuthTokenFilter(jwtUtil, userDetailsService);
+        return new AuthTokenFilter(jwtUtil, principalCache, tokenVersionCache, verifiedTokenCache,
+                jwtConfig);
     }
 
     @Bean
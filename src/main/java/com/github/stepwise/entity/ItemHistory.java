@@ -3,6 +3,7 @@ package com.github.stepwise.entity;
 import java.time.LocalDateTime;
 
 import org.hibernate.envers.Audited;
+import org.hibernate.envers.NotAudited;
 import org.hibernate.envers.RelationTargetAuditMode;
 
 import com.github.stepwise.audit.Auditable;
@@ -15,6 +16,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -32,7 +34,7 @@ import lombok.Setter;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "item_history")
+@Table(name = "item_history", indexes = @Index(name = "idx_item_history_item", columnList = "item_id, id"))
 @Audited
 public class ItemHistory extends Auditable {
 
@@ -68,4 +70,12 @@ public class ItemHistory extends Auditable {
 
     @Column
     private String fileName;
+
+    @NotAudited
+    @Column(name = "staged_object")
+    private String stagedObject;
+
+    @NotAudited
+    @Column(name = "content_digest", length = 64)
+    private String contentDigest;
 }
@@ -0,0 +1,56 @@
+package com.github.stepwise.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Item counters of a project, kept in step with item transitions so progress
+ * can be read without loading the items. Rebuilt from the items by
+ * {@code ProjectProgressService} when missing or out of date.
+ */
+@Entity
+@Getter
+@Setter
+@EqualsAndHashCode(callSuper = false, onlyExplicitlyIncluded = true)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "project_progress")
+public class ProjectProgress {
+
+    @Id
+    @Column(name = "project_id")
+    @EqualsAndHashCode.Include
+    private Long projectId;
+
+    @Column(nullable = false)
+    private int itemCount;
+
+    @Column(nullable = false)
+    private int submittedCount;
+
+    @Column(nullable = false)
+    private int approvedCount;
+
+    @Column(nullable = false)
+    private int rejectedCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private ItemStatus latestItemStatus;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -61,6 +61,10 @@ public class User extends Auditable {
     @Column(nullable = false)
     private UserRole role;
 
+    @NotAudited
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+    private int tokenVersion;
+
     @Builder.Default
     @ManyToMany(mappedBy = "students")
     @NotAudited
@@ -0,0 +1,6 @@
+package com.github.stepwise.event;
+
+public record ExplanatoryFileStagedEvent(Long historyId, String stagedObject, String contentDigest, Long studentId,
+        Long projectId, Long itemId, String fileName) {
+
+}
@@ -0,0 +1,5 @@
+package com.github.stepwise.event;
+
+public record ItemSubmittedEvent(Long itemId, Long studentId, Long projectId) {
+
+}
@@ -2,10 +2,12 @@ package com.github.stepwise.exception;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -43,6 +45,12 @@ public class ExceptionHandlerAdvice {
                 HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<MessageResponse> handleInvalidRefreshToken(InvalidRefreshTokenException ex) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body(new MessageResponse("Session expired: " + ex.getMessage()));
+    }
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<MessageResponse> handleMaxSizeException(NotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -51,8 +59,11 @@ public class ExceptionHandlerAdvice {
 
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public ResponseEntity<MessageResponse> handleMaxSizeException(MaxUploadSizeExceededException exc) {
+        String limit = exc.getMaxUploadSize() > 0
+                ? DataSize.ofBytes(exc.getMaxUploadSize()).toMegabytes() + "MB"
+                : "2MB";
         return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE)
-                .body(new MessageResponse("File size exceeds the maximum limit of 2MB!"));
+                .body(new MessageResponse("File size exceeds the maximum limit of " + limit + "!"));
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -66,6 +77,12 @@ public class ExceptionHandlerAdvice {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(ex.getMessage()));
     }
 
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<MessageResponse> handleRejectedExecution(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new MessageResponse("Server is busy, please retry later"));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGlobalException(Exception ex) {
         log.error("{}", ex);
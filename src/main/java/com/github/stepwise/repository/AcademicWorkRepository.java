@@ -5,6 +5,9 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import com.github.stepwise.entity.AcademicWork;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.entity.ProjectStatus;
+import com.github.stepwise.entity.ProjectType;
 
 public interface AcademicWorkRepository extends JpaRepository<AcademicWork, Long> {
 
@@ -19,4 +22,56 @@ public interface AcademicWorkRepository extends JpaRepository<AcademicWork, Long
     @Query("SELECT aw FROM AcademicWork aw WHERE aw.group.id = :groupId AND aw.workTemplate.teacher.id = :teacherId")
     List<AcademicWork> findByGroupIdAndTeacherId(Long groupId, Long teacherId);
 
+    boolean existsByIdAndWorkTemplateTeacherId(Long id, Long teacherId);
+
+    @Query("""
+            SELECT aw.id AS workId, wt.workTitle AS title, wt.type AS type, g.name AS groupName
+            FROM AcademicWork aw JOIN aw.workTemplate wt JOIN aw.group g
+            WHERE wt.teacher.id = :teacherId
+            ORDER BY aw.id
+            """)
+    List<WorkRow> findRowsByTeacherId(@Param("teacherId") Long teacherId);
+
+    @Query("""
+            SELECT p.academicWork.id AS workId, p.status AS status, COUNT(p) AS count
+            FROM Project p
+            WHERE p.academicWork.workTemplate.teacher.id = :teacherId
+            GROUP BY p.academicWork.id, p.status
+            """)
+    List<ProjectStatusCount> countProjectsByStatus(@Param("teacherId") Long teacherId);
+
+    @Query("""
+            SELECT i.project.academicWork.id AS workId, i.status AS status, COUNT(i) AS count
+            FROM ExplanatoryNoteItem i
+            WHERE i.project.academicWork.workTemplate.teacher.id = :teacherId
+            GROUP BY i.project.academicWork.id, i.status
+            """)
+    List<ItemStatusCount> countItemsByStatus(@Param("teacherId") Long teacherId);
+
+    interface WorkRow {
+        Long getWorkId();
+
+        String getTitle();
+
+        ProjectType getType();
+
+        String getGroupName();
+    }
+
+    interface ProjectStatusCount {
+        Long getWorkId();
+
+        ProjectStatus getStatus();
+
+        Long getCount();
+    }
+
+    interface ItemStatusCount {
+        Long getWorkId();
+
+        ItemStatus getStatus();
+
+        Long getCount();
+    }
+
 }
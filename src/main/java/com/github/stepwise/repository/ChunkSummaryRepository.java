@@ -0,0 +1,13 @@
+package com.github.stepwise.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.github.stepwise.entity.ChunkSummary;
+
+public interface ChunkSummaryRepository extends JpaRepository<ChunkSummary, Long> {
+
+    Optional<ChunkSummary> findByDigestAndPromptVersion(String digest, int promptVersion);
+
+}
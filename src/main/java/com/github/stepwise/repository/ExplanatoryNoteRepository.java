@@ -1,10 +1,16 @@
 package com.github.stepwise.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.github.stepwise.entity.ExplanatoryNoteItem;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.entity.Project;
 
 public interface ExplanatoryNoteRepository extends JpaRepository<ExplanatoryNoteItem, Long> {
 
@@ -16,4 +22,66 @@ public interface ExplanatoryNoteRepository extends JpaRepository<ExplanatoryNote
             + "WHERE e.id = :itemId AND e.project.academicWork.workTemplate.teacher.id = :teacherId")
     boolean existsByIdAndTeacherId(@Param("itemId") Long itemId, @Param("teacherId") Long teacherId);
 
+    @Query("SELECT i FROM ExplanatoryNoteItem i LEFT JOIN FETCH i.history WHERE i.id = :itemId")
+    Optional<ExplanatoryNoteItem> findWithHistoryById(@Param("itemId") Long itemId);
+
+    /**
+     * Initializes the history, with its authors, of every item of the given
+     * projects in the current persistence context.
+     */
+    @Query("""
+            SELECT i FROM ExplanatoryNoteItem i LEFT JOIN FETCH i.history h LEFT JOIN FETCH h.changedBy c
+            LEFT JOIN FETCH c.profile
+            WHERE i.project IN :projects
+            """)
+    List<ExplanatoryNoteItem> fetchHistory(@Param("projects") Collection<Project> projects);
+
+    @Query("""
+            SELECT i.project.id AS projectId, i.id AS id, i.orderNumber AS orderNumber, i.status AS status,
+                   (SELECT h.fileName FROM ItemHistory h WHERE h.id = (SELECT MAX(l.id) FROM ItemHistory l
+                           WHERE l.item = i AND l.fileName IS NOT NULL)) AS latestFileName
+            FROM ExplanatoryNoteItem i
+            WHERE i.project.academicWork.id = :academicWorkId AND i.status <> :status
+            ORDER BY i.orderNumber
+            """)
+    List<ItemRow> findRowsByAcademicWorkIdAndStatusNot(@Param("academicWorkId") Long academicWorkId,
+            @Param("status") ItemStatus status);
+
+    Optional<ItemState> findFirstByProjectIdOrderByOrderNumberDesc(Long projectId);
+
+    long countByProjectId(Long projectId);
+
+    @Query("""
+            SELECT i.status AS status, COUNT(i) AS count FROM ExplanatoryNoteItem i
+            WHERE i.project.id = :projectId
+            GROUP BY i.status
+            """)
+    List<StatusCount> countByProjectIdGroupByStatus(@Param("projectId") Long projectId);
+
+    interface ItemState {
+        Long getId();
+
+        Integer getOrderNumber();
+
+        ItemStatus getStatus();
+    }
+
+    interface StatusCount {
+        ItemStatus getStatus();
+
+        Long getCount();
+    }
+
+    interface ItemRow {
+        Long getProjectId();
+
+        Long getId();
+
+        Integer getOrderNumber();
+
+        ItemStatus getStatus();
+
+        String getLatestFileName();
+    }
+
 }
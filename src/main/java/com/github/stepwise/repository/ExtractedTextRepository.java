@@ -0,0 +1,13 @@
+package com.github.stepwise.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.github.stepwise.entity.ExtractedText;
+
+public interface ExtractedTextRepository extends JpaRepository<ExtractedText, Long> {
+
+    Optional<ExtractedText> findByHistoryId(Long historyId);
+
+}
@@ -0,0 +1,117 @@
+package com.github.stepwise.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.stepwise.entity.ItemHistory;
+
+public interface ItemHistoryRepository extends JpaRepository<ItemHistory, Long> {
+
+    boolean existsByStagedObject(String stagedObject);
+
+    long countByItemId(Long itemId);
+
+    boolean existsByItemIdAndIdGreaterThan(Long itemId, Long id);
+
+    @Query("""
+            SELECT h.id AS historyId, h.stagedObject AS stagedObject, h.contentDigest AS contentDigest,
+                   h.fileName AS fileName, i.id AS itemId, p.id AS projectId, p.student.id AS studentId
+            FROM ItemHistory h JOIN h.item i JOIN i.project p
+            WHERE h.stagedObject IS NOT NULL AND h.changedAt < :before
+            """)
+    List<StagedUpload> findStagedBefore(@Param("before") LocalDateTime before);
+
+    @Query("""
+            SELECT h.id AS historyId, h.fileName AS fileName, h.stagedObject AS stagedObject,
+                   h.contentDigest AS contentDigest, i.id AS itemId, i.orderNumber AS orderNumber, p.id AS projectId,
+                   s.id AS studentId, s.username AS username, pr.lastName AS lastName, pr.firstName AS firstName
+            FROM ItemHistory h JOIN h.item i JOIN i.project p JOIN p.student s LEFT JOIN s.profile pr
+            WHERE p.academicWork.id = :academicWorkId AND h.fileName IS NOT NULL
+              AND (:allVersions = true OR h.id = (
+                  SELECT MAX(h2.id) FROM ItemHistory h2 WHERE h2.item = i AND h2.fileName IS NOT NULL))
+            ORDER BY p.id, i.orderNumber, h.id
+            """)
+    List<ExportFile> findExportFiles(@Param("academicWorkId") Long academicWorkId,
+            @Param("allVersions") boolean allVersions);
+
+    @Query("""
+            SELECT h.id AS historyId, h.fileName AS fileName, i.id AS itemId, p.id AS projectId,
+                   p.student.id AS studentId
+            FROM ItemHistory h JOIN h.item i JOIN i.project p
+            WHERE h.fileName IS NOT NULL AND h.stagedObject IS NULL AND h.contentDigest IS NULL
+              AND h.id > :afterId
+            ORDER BY h.id
+            """)
+    List<LegacyFile> findLegacyFilesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query("UPDATE ItemHistory h SET h.stagedObject = null WHERE h.id = :id")
+    int clearStagedObject(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ItemHistory h SET h.contentDigest = :contentDigest WHERE h.id = :id AND h.contentDigest IS NULL")
+    int setContentDigest(@Param("id") Long id, @Param("contentDigest") String contentDigest);
+
+    interface StagedUpload {
+        Long getHistoryId();
+
+        String getStagedObject();
+
+        String getContentDigest();
+
+        String getFileName();
+
+        Long getItemId();
+
+        Long getProjectId();
+
+        Long getStudentId();
+    }
+
+    interface LegacyFile {
+        Long getHistoryId();
+
+        String getFileName();
+
+        Long getItemId();
+
+        Long getProjectId();
+
+        Long getStudentId();
+    }
+
+    interface ExportFile {
+        Long getHistoryId();
+
+        String getFileName();
+
+        String getStagedObject();
+
+        String getContentDigest();
+
+        Long getItemId();
+
+        Integer getOrderNumber();
+
+        Long getProjectId();
+
+        Long getStudentId();
+
+        String getUsername();
+
+        String getLastName();
+
+        String getFirstName();
+    }
+
+}
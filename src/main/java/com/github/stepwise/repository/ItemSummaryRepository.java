@@ -0,0 +1,13 @@
+package com.github.stepwise.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.github.stepwise.entity.ItemSummary;
+
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+
+    Optional<ItemSummary> findByHistoryIdAndPromptVersion(Long historyId, int promptVersion);
+
+}
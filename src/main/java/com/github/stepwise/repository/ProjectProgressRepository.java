@@ -0,0 +1,84 @@
+package com.github.stepwise.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.entity.ProjectProgress;
+
+import jakarta.persistence.LockModeType;
+
+public interface ProjectProgressRepository extends JpaRepository<ProjectProgress, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT pp FROM ProjectProgress pp WHERE pp.projectId = :projectId")
+    Optional<ProjectProgress> findForUpdate(@Param("projectId") Long projectId);
+
+    @Modifying
+    @Query("""
+            UPDATE ProjectProgress pp SET pp.itemCount = pp.itemCount + :items,
+                pp.submittedCount = pp.submittedCount + :submitted,
+                pp.approvedCount = pp.approvedCount + :approved,
+                pp.rejectedCount = pp.rejectedCount + :rejected,
+                pp.latestItemStatus = :latestItemStatus, pp.updatedAt = :updatedAt
+            WHERE pp.projectId = :projectId
+            """)
+    int applyTransition(@Param("projectId") Long projectId, @Param("items") int items,
+            @Param("submitted") int submitted, @Param("approved") int approved, @Param("rejected") int rejected,
+            @Param("latestItemStatus") ItemStatus latestItemStatus, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = """
+            INSERT INTO project_progress (project_id, item_count, submitted_count, approved_count, rejected_count,
+                updated_at)
+            VALUES (:projectId, 0, 0, 0, 0, :updatedAt)
+            """, nativeQuery = true)
+    int insertEmpty(@Param("projectId") Long projectId, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("""
+            SELECT p.id AS projectId, wt.countOfChapters AS totalChapters,
+                   COALESCE(pp.itemCount, 0) AS itemCount, COALESCE(pp.submittedCount, 0) AS submittedCount,
+                   COALESCE(pp.approvedCount, 0) AS approvedCount, COALESCE(pp.rejectedCount, 0) AS rejectedCount,
+                   pp.latestItemStatus AS latestItemStatus
+            FROM Project p JOIN p.academicWork aw JOIN aw.workTemplate wt
+            LEFT JOIN ProjectProgress pp ON pp.projectId = p.id
+            WHERE aw.id = :academicWorkId
+            ORDER BY p.id
+            """)
+    List<ProgressRow> findRowsByAcademicWorkId(@Param("academicWorkId") Long academicWorkId);
+
+    @Query("SELECT p.id FROM Project p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findProjectIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM ProjectProgress pp WHERE pp.projectId NOT IN (SELECT p.id FROM Project p)")
+    int deleteOrphans();
+
+    interface ProgressRow {
+        Long getProjectId();
+
+        Integer getTotalChapters();
+
+        Integer getItemCount();
+
+        Integer getSubmittedCount();
+
+        Integer getApprovedCount();
+
+        Integer getRejectedCount();
+
+        ItemStatus getLatestItemStatus();
+    }
+
+}
@@ -9,12 +9,40 @@ import org.springframework.data.repository.query.Param;
 
 import com.github.stepwise.entity.AcademicWork;
 import com.github.stepwise.entity.Project;
+import com.github.stepwise.entity.ProjectStatus;
+import com.github.stepwise.entity.UserRole;
 
 public interface ProjectRepository extends JpaRepository<Project, Long> {
 
-    List<Project> findAllByAcademicWorkId(Long academicWorkId);
+    @Query("""
+            SELECT p FROM Project p LEFT JOIN FETCH p.student s LEFT JOIN FETCH s.profile LEFT JOIN FETCH p.items
+            WHERE p.id = :projectId
+            """)
+    Optional<Project> findWithItemsById(@Param("projectId") Long projectId);
 
-    List<Project> findAllByAcademicWorkIdAndStudentId(Long academicWorkId, Long studentId);
+    @Query("""
+            SELECT p FROM Project p LEFT JOIN FETCH p.student s LEFT JOIN FETCH s.profile LEFT JOIN FETCH p.items
+            WHERE p.academicWork.id = :academicWorkId
+            """)
+    List<Project> findWithItemsByAcademicWorkId(@Param("academicWorkId") Long academicWorkId);
+
+    @Query("""
+            SELECT p FROM Project p LEFT JOIN FETCH p.student s LEFT JOIN FETCH s.profile LEFT JOIN FETCH p.items
+            WHERE p.academicWork.id = :academicWorkId AND s.id = :studentId
+            """)
+    List<Project> findWithItemsByAcademicWorkIdAndStudentId(@Param("academicWorkId") Long academicWorkId,
+            @Param("studentId") Long studentId);
+
+    @Query("""
+            SELECT p.id AS id, p.title AS title, p.description AS description, p.grade AS grade,
+                   p.status AS status, s.id AS ownerId, s.username AS ownerUsername, s.email AS ownerEmail,
+                   s.role AS ownerRole, pr.firstName AS ownerFirstName, pr.lastName AS ownerLastName,
+                   pr.middleName AS ownerMiddleName
+            FROM Project p JOIN p.student s LEFT JOIN s.profile pr
+            WHERE p.academicWork.id = :academicWorkId
+            ORDER BY p.id
+            """)
+    List<ProjectRow> findRowsByAcademicWorkId(@Param("academicWorkId") Long academicWorkId);
 
     boolean existsByIdAndStudentId(Long projectId, Long studentId);
 
@@ -27,4 +55,43 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
 
     Optional<Project> findByStudentIdAndAcademicWorkId(Long studentId, Long academicWorkId);
 
+    @Query("""
+            SELECT p.student.id AS studentId, wt.countOfChapters AS countOfChapters
+            FROM Project p JOIN p.academicWork aw JOIN aw.workTemplate wt
+            WHERE p.id = :projectId
+            """)
+    Optional<DraftTarget> findDraftTargetById(@Param("projectId") Long projectId);
+
+    interface ProjectRow {
+        Long getId();
+
+        String getTitle();
+
+        String getDescription();
+
+        Integer getGrade();
+
+        ProjectStatus getStatus();
+
+        Long getOwnerId();
+
+        String getOwnerUsername();
+
+        String getOwnerEmail();
+
+        UserRole getOwnerRole();
+
+        String getOwnerFirstName();
+
+        String getOwnerLastName();
+
+        String getOwnerMiddleName();
+    }
+
+    interface DraftTarget {
+        Long getStudentId();
+
+        Integer getCountOfChapters();
+    }
+
 }
@@ -15,10 +15,31 @@ import com.github.stepwise.entity.UserRole;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Column references are unqualified so the same expressions serve the trigram indexes and the queries.
+    String USERNAME_EXPRESSION = "lower(username)";
+
+    String FULL_NAME_EXPRESSION = "lower(coalesce(last_name, '') || ' ' || coalesce(first_name, '') || ' '"
+            + " || coalesce(middle_name, ''))";
+
+    // Each branch filters a single table so its trigram index can be used; an OR across the join would force a
+    // sequential scan of both tables. Ranking and counting then run over the matched ids only.
+    String TRIGRAM_CANDIDATES = "SELECT id FROM usr WHERE role = :role AND ("
+            + USERNAME_EXPRESSION + " LIKE '%' || lower(:search) || '%' OR "
+            + "lower(:search) <% " + USERNAME_EXPRESSION + ") "
+            + "UNION SELECT u.id FROM profile p JOIN usr u ON u.profile_id = p.id WHERE u.role = :role AND ("
+            + FULL_NAME_EXPRESSION + " LIKE '%' || lower(:search) || '%' OR "
+            + "lower(:search) <% " + FULL_NAME_EXPRESSION + ")";
+
+    String TRIGRAM_SEARCH_FROM = "FROM usr u LEFT JOIN profile p ON p.id = u.profile_id "
+            + "WHERE u.id IN (" + TRIGRAM_CANDIDATES + ")";
+
     Optional<User> findByUsername(String username);
 
     boolean existsByUsername(String username);
 
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
     List<User> findByIdInAndRole(Collection<Long> ids, UserRole role);
 
     Page<User> findByRole(UserRole role, Pageable pageable);
@@ -33,6 +54,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findByUsernameOrFirstNameOrLastName(@Param("search") String search,
             @Param("role") UserRole role, Pageable pageable);
 
+    @Query(value = "SELECT u.* " + TRIGRAM_SEARCH_FROM + " ORDER BY greatest("
+            + "word_similarity(lower(:search), " + USERNAME_EXPRESSION + "), "
+            + "word_similarity(lower(:search), " + FULL_NAME_EXPRESSION + ")) DESC, u.id",
+            countQuery = "SELECT count(*) FROM (" + TRIGRAM_CANDIDATES + ") candidates", nativeQuery = true)
+    Page<User> searchByTrigram(@Param("search") String search, @Param("role") String role, Pageable pageable);
+
     Optional<User> findByEmail(String email);
 
     @Query("SELECT u FROM User u JOIN u.groups g WHERE g.id = :groupId")
@@ -8,34 +8,53 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import com.github.stepwise.entity.User;
 import com.github.stepwise.entity.UserRole;
-import lombok.RequiredArgsConstructor;
 
-@RequiredArgsConstructor
 public class AppUserDetails implements UserDetails {
 
-  private final User user;
+  private final Long id;
+
+  private final String username;
+
+  private final String password;
+
+  private final UserRole role;
+
+  public AppUserDetails(User user) {
+    this(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+  }
+
+  public AppUserDetails(Long id, String username, String password, UserRole role) {
+    this.id = id;
+    this.username = username;
+    this.password = password;
+    this.role = role;
+  }
 
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
-    return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+    return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
   }
 
   @Override
   public String getPassword() {
-    return user.getPassword();
+    return password;
   }
 
   @Override
   public String getUsername() {
-    return user.getUsername();
+    return username;
   }
 
   public Long getId() {
-    return user.getId();
+    return id;
   }
 
   public UserRole getRole() {
-    return user.getRole();
+    return role;
+  }
+
+  public AppUserDetails withoutPassword() {
+    return new AppUserDetails(id, username, null, role);
   }
 
 }
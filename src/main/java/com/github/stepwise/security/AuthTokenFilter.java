@@ -8,42 +8,73 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.entity.UserRole;
 import com.github.stepwise.utils.JwtUtil;
+import com.github.stepwise.utils.JwtValidationResult;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Component
+@Slf4j
 @RequiredArgsConstructor
 public class AuthTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtils;
 
-    private final UserDetailsServiceImpl userDetailsService;
+    private final PrincipalCache principalCache;
+
+    private final TokenVersionCache tokenVersionCache;
+
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final JwtConfigurationProperties jwtConfig;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUsernameFromToken(jwt);
-                AppUserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null,
-                        userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            JwtValidationResult result = jwt != null ? verifiedTokenCache.validate(jwt, jwtUtils::validate) : null;
+            if (result != null && result.isValid()) {
+                AppUserDetails userDetails = resolvePrincipal(result.claims());
+                if (userDetails != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            userDetails, null,
+                            userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
-            IO.println("Cannot set user authentication: " + e);
+            log.warn("Cannot set user authentication: {}", e.getMessage());
         }
         filterChain.doFilter(request, response);
     }
 
+    private AppUserDetails resolvePrincipal(Claims claims) {
+        Long userId = claims.get(JwtUtil.USER_ID_CLAIM, Long.class);
+        Integer tokenVersion = claims.get(JwtUtil.TOKEN_VERSION_CLAIM, Integer.class);
+        String role = claims.get(JwtUtil.ROLE_CLAIM, String.class);
+
+        if (userId != null && tokenVersion != null && !tokenVersionCache.isCurrent(userId, tokenVersion)) {
+            log.debug("Rejecting revoked token of user {} with version {}", userId, tokenVersion);
+            return null;
+        }
+
+        if (jwtConfig.isStateless() && userId != null && role != null) {
+            return new AppUserDetails(userId, claims.getSubject(), null, UserRole.valueOf(role));
+        }
+
+        return principalCache.getByUsername(claims.getSubject());
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         if (headerAuth != null && headerAuth.startsWith("Bearer ")) {
@@ -0,0 +1,62 @@
+package com.github.stepwise.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private final UserDetailsServiceImpl userDetailsService;
+
+    private final Cache<String, AppUserDetails> principals;
+
+    public PrincipalCache(UserDetailsServiceImpl userDetailsService, JwtConfigurationProperties jwtConfig,
+            MeterRegistry meterRegistry) {
+        this.userDetailsService = userDetailsService;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getPrincipalCache().getMaxSize())
+                .expireAfterWrite(jwtConfig.getPrincipalCache().getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    public AppUserDetails getByUsername(String username) {
+        return principals.get(username, key -> userDetailsService.loadUserByUsername(key).withoutPassword());
+    }
+
+    public void evict(String username) {
+        log.debug("Evicting cached principal: {}", username);
+        principals.invalidate(username);
+    }
+
+    public void evictAfterCommit(String username) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(username);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(username);
+            }
+        });
+    }
+
+    public void evictAll() {
+        principals.invalidateAll();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.github.stepwise.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Current {@code User.tokenVersion} per user id. Tokens carrying an older version are rejected;
+ * the value is re-read from the database at most once per {@code jwt.token-version-ttl}.
+ */
+@Component
+public class TokenVersionCache {
+
+    private static final int MISSING_USER = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+
+    private final Cache<Long, Integer> versions;
+
+    public TokenVersionCache(UserRepository userRepository, JwtConfigurationProperties jwtConfig,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getPrincipalCache().getMaxSize())
+                .expireAfterWrite(jwtConfig.getTokenVersionTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "token-versions");
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        int current = versions.get(userId,
+                id -> userRepository.findTokenVersionById(id).orElse(MISSING_USER));
+        return tokenVersion >= current;
+    }
+
+    public void evict(Long userId) {
+        versions.invalidate(userId);
+    }
+
+    public void evictAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(userId);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.github.stepwise.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.utils.JwtValidationResult;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Claims of bearer tokens that already passed signature verification, keyed by the SHA-256 of the
+ * token. Each entry lives no longer than the token's own {@code exp}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final boolean enabled;
+
+    private final Cache<String, Claims> verified;
+
+    public VerifiedTokenCache(JwtConfigurationProperties jwtConfig, MeterRegistry meterRegistry) {
+        this.enabled = jwtConfig.getVerifiedTokenCache().isEnabled();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(jwtConfig.getVerifiedTokenCache().getMaxSize())
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "verified-tokens");
+    }
+
+    public JwtValidationResult validate(String token, Function<String, JwtValidationResult> verifier) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+
+        String key = hash(token);
+        Claims cached = verified.getIfPresent(key);
+        if (cached != null && !isExpired(cached)) {
+            return JwtValidationResult.valid(cached);
+        }
+
+        JwtValidationResult result = verifier.apply(token);
+        if (result.isValid() && result.claims().getExpiration() != null) {
+            verified.put(key, result.claims());
+        }
+        return result;
+    }
+
+    public void evictAll() {
+        verified.invalidateAll();
+    }
+
+    private static boolean isExpired(Claims claims) {
+        return claims.getExpiration() == null || !claims.getExpiration().after(new Date());
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long millisLeft = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millisLeft));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
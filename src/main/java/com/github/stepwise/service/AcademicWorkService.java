@@ -1,6 +1,9 @@
 package com.github.stepwise.service;
 
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -9,18 +12,24 @@ import org.springframework.stereotype.Service;
 
 import com.github.stepwise.entity.AcademicWork;
 import com.github.stepwise.entity.AcademicWorkDeadline;
+import com.github.stepwise.entity.ItemStatus;
 import com.github.stepwise.entity.Project;
+import com.github.stepwise.entity.ProjectStatus;
 import com.github.stepwise.entity.StudyGroup;
 import com.github.stepwise.entity.UserRole;
 import com.github.stepwise.entity.WorkTemplate;
 import com.github.stepwise.entity.WorkTemplateChapter;
 import com.github.stepwise.exception.NotFoundException;
 import com.github.stepwise.repository.AcademicWorkRepository;
+import com.github.stepwise.repository.AcademicWorkRepository.ItemStatusCount;
+import com.github.stepwise.repository.AcademicWorkRepository.ProjectStatusCount;
+import com.github.stepwise.repository.AcademicWorkRepository.WorkRow;
 import com.github.stepwise.repository.ProjectRepository;
 import com.github.stepwise.repository.StudyGroupRepository;
 import com.github.stepwise.repository.UserRepository;
 import com.github.stepwise.repository.WorkTemplateRepository;
 import com.github.stepwise.web.dto.CreateWorkDto;
+import com.github.stepwise.web.dto.WorkDashboardDto;
 
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -90,6 +99,44 @@ public class AcademicWorkService {
                 : academicWorkRepository.findByTeacherId(teacherId);
     }
 
+    /**
+     * Per-work project and item counts of a teacher, aggregated in the database
+     * by three queries however many works, projects and items there are.
+     */
+    public List<WorkDashboardDto> getTeacherDashboard(Long teacherId) {
+        log.info("Building dashboard for teacher with id: {}", teacherId);
+
+        List<WorkRow> works = academicWorkRepository.findRowsByTeacherId(teacherId);
+        if (works.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Map<ProjectStatus, Long>> projectCounts = new HashMap<>();
+        for (ProjectStatusCount count : academicWorkRepository.countProjectsByStatus(teacherId)) {
+            projectCounts.computeIfAbsent(count.getWorkId(), id -> zeroCounts(ProjectStatus.class))
+                    .put(count.getStatus(), count.getCount());
+        }
+
+        Map<Long, Map<ItemStatus, Long>> itemCounts = new HashMap<>();
+        for (ItemStatusCount count : academicWorkRepository.countItemsByStatus(teacherId)) {
+            itemCounts.computeIfAbsent(count.getWorkId(), id -> zeroCounts(ItemStatus.class))
+                    .put(count.getStatus(), count.getCount());
+        }
+
+        return works.stream().map(work -> {
+            Map<ItemStatus, Long> items = itemCounts.getOrDefault(work.getWorkId(), zeroCounts(ItemStatus.class));
+            return WorkDashboardDto.builder()
+                    .workId(work.getWorkId())
+                    .title(work.getTitle())
+                    .type(work.getType())
+                    .groupName(work.getGroupName())
+                    .projectsByStatus(projectCounts.getOrDefault(work.getWorkId(), zeroCounts(ProjectStatus.class)))
+                    .itemsByStatus(items)
+                    .awaitingReview(items.get(ItemStatus.SUBMITTED))
+                    .build();
+        }).toList();
+    }
+
     public AcademicWork getById(Long workId) {
         log.info("Fetching work with id: {}", workId);
         return academicWorkRepository.findById(workId)
@@ -112,6 +159,14 @@ public class AcademicWorkService {
         return getByStudentId(studentId);
     }
 
+    private static <S extends Enum<S>> Map<S, Long> zeroCounts(Class<S> statuses) {
+        Map<S, Long> counts = new EnumMap<>(statuses);
+        for (S status : statuses.getEnumConstants()) {
+            counts.put(status, 0L);
+        }
+        return counts;
+    }
+
     private Long resolveStudentId(String requestedStudentId, Long principalId, UserRole principalRole) {
         Long studentId = requestedStudentId == null ? principalId : Long.valueOf(requestedStudentId);
 
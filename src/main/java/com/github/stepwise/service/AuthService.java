@@ -34,6 +34,8 @@ public class AuthService {
 
     private final JwtUtil jwtUtils;
 
+    private final RefreshTokenService refreshTokenService;
+
     public SignInResponseDto authenticate(SignInDto signInDto) {
         log.info("Authenticating user: {}", signInDto.getUsername());
 
@@ -44,12 +46,14 @@ public class AuthService {
         User user = userRepository.findById(principal.getId())
                 .orElseThrow(() -> new NotFoundException("User not found with id: " + principal.getId()));
 
-        String token = jwtUtils.generateToken(user.getUsername());
+        return toSignInResponse(user, refreshTokenService.issue(user));
+    }
 
-        return new SignInResponseDto(
-                UserResponseDto.fromIdAndRole(user.getId(), user.getRole().name()),
-                token,
-                user.getTempPassword() != null);
+    public SignInResponseDto refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        log.info("Refreshing session for user: {}", rotation.user().getUsername());
+
+        return toSignInResponse(rotation.user(), rotation.refreshToken());
     }
 
     @Transactional
@@ -67,4 +71,14 @@ public class AuthService {
         return userRepository.save(user);
     }
 
+    private SignInResponseDto toSignInResponse(User user, String refreshToken) {
+        String token = jwtUtils.generateToken(user);
+
+        return new SignInResponseDto(
+                UserResponseDto.fromIdAndRole(user.getId(), user.getRole().name()),
+                token,
+                user.getTempPassword() != null,
+                refreshToken);
+    }
+
 }
@@ -0,0 +1,100 @@
+package com.github.stepwise.service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.github.stepwise.configuration.MinioConfig;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.repository.ItemHistoryRepository.LegacyFile;
+import com.github.stepwise.service.StorageService.BatchResult;
+import com.github.stepwise.utils.ContentDigest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves files stored under the legacy per-history path into the
+ * content-addressed blob layout, one batch of history entries at a time.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BlobMigrationService {
+
+    private final StorageService storageService;
+
+    private final ItemHistoryRepository itemHistoryRepository;
+
+    private final MinioConfig minioConfig;
+
+    private long cursor;
+
+    @Scheduled(fixedDelayString = "${minio.blob-migration-interval}",
+            initialDelayString = "${minio.blob-migration-interval}")
+    public void migrate() {
+        if (!minioConfig.isContentAddressed()) {
+            return;
+        }
+
+        List<LegacyFile> batch;
+        int migrated = 0;
+        while (!(batch = itemHistoryRepository.findLegacyFilesAfter(cursor,
+                Limit.of(minioConfig.getBlobMigrationBatchSize()))).isEmpty()) {
+            migrated += migrateBatch(batch);
+            cursor = batch.getLast().getHistoryId();
+        }
+
+        // Entries that failed stay legacy and are retried from the start on the next run.
+        cursor = 0;
+        if (migrated > 0) {
+            log.info("Migrated {} explanatory files to content-addressed blobs", migrated);
+        }
+    }
+
+    int migrateBatch(List<LegacyFile> batch) {
+        Map<String, LegacyFile> byObjectName = new LinkedHashMap<>();
+        for (LegacyFile file : batch) {
+            byObjectName.put(storageService.explanatoryObjectName(file.getStudentId(), file.getProjectId(),
+                    file.getItemId(), file.getHistoryId(), file.getFileName()), file);
+        }
+
+        List<String> migrated = new ArrayList<>();
+        try (Stream<BatchResult<InputStream>> results = storageService
+                .getObjects(new ArrayList<>(byObjectName.keySet()))) {
+            for (BatchResult<InputStream> result : (Iterable<BatchResult<InputStream>>) results::iterator) {
+                LegacyFile file = byObjectName.get(result.objectName());
+                if (!result.isSuccess()) {
+                    log.warn("Skipping migration of historyId: {}: {}", file.getHistoryId(),
+                            result.error().getMessage());
+                    continue;
+                }
+
+                try (InputStream in = result.value()) {
+                    String digest = ContentDigest.of(in);
+                    storageService.storeBlob(result.objectName(), digest);
+                    itemHistoryRepository.setContentDigest(file.getHistoryId(), digest);
+                    migrated.add(result.objectName());
+                } catch (Exception e) {
+                    log.warn("Failed to migrate historyId: {}: {}", file.getHistoryId(), e.getMessage());
+                }
+            }
+        }
+
+        try (Stream<BatchResult<String>> removed = storageService.removeObjects(migrated)) {
+            removed.filter(result -> !result.isSuccess())
+                    .forEach(result -> log.warn("Failed to remove migrated object {}: {}", result.objectName(),
+                            result.error().getMessage()));
+        }
+
+        return migrated.size();
+    }
+
+}
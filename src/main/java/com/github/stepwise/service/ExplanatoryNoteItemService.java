@@ -1,27 +1,46 @@
 package com.github.stepwise.service;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Comparator;
-import java.util.List;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.github.stepwise.configuration.FileUploadConfig;
 import com.github.stepwise.entity.ExplanatoryNoteItem;
 import com.github.stepwise.entity.ItemHistory;
 import com.github.stepwise.entity.ItemStatus;
-import com.github.stepwise.entity.Project;
 import com.github.stepwise.entity.User;
 import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.event.ExplanatoryFileStagedEvent;
+import com.github.stepwise.event.ItemSubmittedEvent;
 import com.github.stepwise.exception.NotFoundException;
 import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ExplanatoryNoteRepository.ItemState;
+import com.github.stepwise.repository.ItemHistoryRepository;
 import com.github.stepwise.repository.ProjectRepository;
+import com.github.stepwise.repository.ProjectRepository.DraftTarget;
 import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.service.ObjectFileCache.CachedFile;
+import com.github.stepwise.service.StorageService.StagedFile;
+import com.github.stepwise.utils.LimitedInputStream;
 
-import jakarta.transaction.Transactional;
+import io.minio.StatObjectResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,87 +49,182 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class ExplanatoryNoteItemService {
 
+    private static final Map<String, byte[]> FILE_SIGNATURES = Map.of(
+            "application/pdf", "%PDF-".getBytes(StandardCharsets.US_ASCII),
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+            new byte[] { 'P', 'K', 3, 4 });
+
+    private static final int SIGNATURE_LENGTH = 8;
+
+    public record ItemFile(Long historyId, String fileName, String objectName, Instant lastModified) {
+
+    }
+
     private final ProjectRepository projectRepository;
 
     private final ExplanatoryNoteRepository explanatoryNoteRepository;
 
+    private final ItemHistoryRepository itemHistoryRepository;
+
     private final FileUploadConfig fileUploadConfig;
 
     private final StorageService storageService;
 
     private final UserRepository userRepository;
 
-    @Transactional
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectFileCache objectFileCache;
+
+    private final ProjectProgressService projectProgressService;
+
     public void draftItem(Long userId, Long projectId, MultipartFile file) throws Exception {
         log.info("Creating explanatory note item for userId: {}, projectId: {}, file: {}",
                 userId, projectId, file.getOriginalFilename());
 
-        if (!fileUploadConfig.getAllowedMimeTypes().contains(file.getContentType())) {
-            throw new IllegalArgumentException(
-                    "Only allowed file types are: " + fileUploadConfig.getAllowedMimeTypes());
+        assertAllowedContentType(file.getContentType());
+
+        draft(userId, projectId, file.getOriginalFilename(), () -> storageService.stageExplanatoryFile(file));
+    }
+
+    public void draftItem(Long userId, Long projectId, String fileName, String contentType, Long contentLength,
+            InputStream body) throws Exception {
+        log.info("Streaming explanatory note item for userId: {}, projectId: {}, file: {}, length: {}",
+                userId, projectId, fileName, contentLength);
+
+        String baseName = StringUtils.getFilename(fileName);
+        if (!StringUtils.hasText(baseName)) {
+            throw new IllegalArgumentException("File name must not be blank");
         }
 
-        Project project = projectRepository.findById(projectId)
+        assertAllowedContentType(contentType);
+
+        long maxSize = fileUploadConfig.getMaxStreamSize().toBytes();
+        if (contentLength != null && contentLength > maxSize) {
+            throw new MaxUploadSizeExceededException(maxSize);
+        }
+
+        PushbackInputStream source = new PushbackInputStream(new LimitedInputStream(body, maxSize),
+                SIGNATURE_LENGTH);
+
+        draft(userId, projectId, baseName, () -> {
+            assertSignature(source, contentType);
+            return storageService.stageExplanatoryStream(source, contentType);
+        });
+    }
+
+    private void draft(Long userId, Long projectId, String fileName, Callable<StagedFile> stage) throws Exception {
+        DraftTarget target = projectRepository.findDraftTargetById(projectId)
                 .orElseThrow(() -> new NotFoundException("Project not found with id: " + projectId));
 
-        if (!project.getStudent().getId().equals(userId)) {
+        if (!target.getStudentId().equals(userId)) {
             throw new AccessDeniedException(
                     "User with id " + userId + " is not the owner of project with id: " + projectId);
         }
 
-        List<ExplanatoryNoteItem> items = project.getItems();
-        items.sort(Comparator.comparing(ExplanatoryNoteItem::getOrderNumber));
+        StagedFile staged = stage.call();
+
+        ItemHistory historyEntry;
+        try {
+            historyEntry = transactionTemplate.execute(
+                    status -> recordDraft(userId, projectId, target, staged, fileName));
+        } catch (RuntimeException e) {
+            discardStagedObject(staged.objectName());
+            throw e;
+        }
+
+        log.info("Draft created for projectId: {}, itemId: {}, historyId: {}", projectId,
+                historyEntry.getItem().getId(), historyEntry.getId());
+    }
+
+    private void assertAllowedContentType(String contentType) {
+        if (!fileUploadConfig.getAllowedMimeTypes().contains(contentType)) {
+            throw new IllegalArgumentException(
+                    "Only allowed file types are: " + fileUploadConfig.getAllowedMimeTypes());
+        }
+    }
+
+    private void assertSignature(PushbackInputStream source, String contentType) throws IOException {
+        byte[] expected = FILE_SIGNATURES.get(contentType);
+        if (expected == null) {
+            return;
+        }
+
+        byte[] head = source.readNBytes(expected.length);
+        source.unread(head);
 
-        if (!items.isEmpty()) {
-            if (items.size() >= project.getAcademicWork().getWorkTemplate().getCountOfChapters()
-                    && items.getLast().getStatus() == ItemStatus.APPROVED) {
+        if (!Arrays.equals(head, expected)) {
+            throw new IllegalArgumentException("File content does not match declared type: " + contentType);
+        }
+    }
+
+    private ItemHistory recordDraft(Long userId, Long projectId, DraftTarget target, StagedFile staged,
+            String fileName) {
+        ItemState last = explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(projectId)
+                .orElse(null);
+        long itemCount = explanatoryNoteRepository.countByProjectId(projectId);
+
+        if (last != null) {
+            if (itemCount >= target.getCountOfChapters() && last.getStatus() == ItemStatus.APPROVED) {
                 throw new IllegalArgumentException("Project already has all items submitted");
             }
-            if (items.getLast().getStatus() == ItemStatus.SUBMITTED) {
+            if (last.getStatus() == ItemStatus.SUBMITTED) {
                 throw new IllegalArgumentException("Cannot submit more than one item at a time");
             }
         }
 
-        User changedBy = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
-
-        ExplanatoryNoteItem item = resolveDraftItem(items, project, projectId);
-
-        Project savedProject = projectRepository.save(project);
-        item = savedProject.getItems().getLast();
+        ExplanatoryNoteItem item = resolveDraftItem(last, itemCount, projectId);
+        if (last == null || last.getStatus() != ItemStatus.DRAFT) {
+            projectProgressService.recordTransition(projectId,
+                    last == null || last.getStatus() == ItemStatus.APPROVED ? null : last.getStatus(),
+                    ItemStatus.DRAFT);
+        }
 
-        ItemHistory historyEntry = ItemHistory.builder()
+        ItemHistory historyEntry = itemHistoryRepository.save(ItemHistory.builder()
                 .item(item)
-                .previousStatus(item.getHistory().isEmpty() ? null : item.getHistory().getLast().getNewStatus())
+                .previousStatus(last == null || last.getStatus() == ItemStatus.APPROVED ? null : last.getStatus())
                 .newStatus(ItemStatus.DRAFT)
                 .changedAt(LocalDateTime.now())
-                .changedBy(changedBy)
-                .fileName(file.getOriginalFilename())
-                .build();
+                .changedBy(userRepository.getReferenceById(userId))
+                .fileName(fileName)
+                .stagedObject(staged.objectName())
+                .contentDigest(staged.contentDigest())
+                .build());
 
-        item.getHistory().add(historyEntry);
-        projectRepository.save(savedProject);
+        eventPublisher.publishEvent(new ExplanatoryFileStagedEvent(historyEntry.getId(), staged.objectName(),
+                staged.contentDigest(), userId, projectId, item.getId(), fileName));
 
-        Long historyId = item.getHistory().getLast().getId();
-        storageService.uploadExplanatoryFile(userId, projectId, item.getId(), historyId, file);
+        return historyEntry;
+    }
 
-        log.info("Draft created for projectId: {}, itemId: {}, historyId: {}", projectId, item.getId(), historyId);
+    private void discardStagedObject(String stagedObject) {
+        try {
+            storageService.removeObject(stagedObject);
+        } catch (Exception e) {
+            log.warn("Failed to remove staged object {}, leaving it to the reconciler: {}", stagedObject,
+                    e.getMessage());
+        }
     }
 
-    private ExplanatoryNoteItem resolveDraftItem(List<ExplanatoryNoteItem> items, Project project, Long projectId) {
-        if (items.isEmpty() || items.getLast().getStatus() == ItemStatus.APPROVED) {
-            ExplanatoryNoteItem item = new ExplanatoryNoteItem(items.size(), ItemStatus.DRAFT, project);
-            items.add(item);
-            return item;
+    private ExplanatoryNoteItem resolveDraftItem(ItemState last, long itemCount, Long projectId) {
+        if (last == null || last.getStatus() == ItemStatus.APPROVED) {
+            return explanatoryNoteRepository.save(new ExplanatoryNoteItem((int) itemCount, ItemStatus.DRAFT,
+                    projectRepository.getReferenceById(projectId)));
+        }
+        if (last.getStatus() == ItemStatus.DRAFT) {
+            return explanatoryNoteRepository.getReferenceById(last.getId());
         }
-        if (items.getLast().getStatus() == ItemStatus.DRAFT || items.getLast().getStatus() == ItemStatus.REJECTED) {
-            ExplanatoryNoteItem item = items.getLast();
+        if (last.getStatus() == ItemStatus.REJECTED) {
+            ExplanatoryNoteItem item = getItemOrThrow(last.getId());
             item.setStatus(ItemStatus.DRAFT);
             return item;
         }
         throw new IllegalArgumentException("Cannot draft item for project: " + projectId);
     }
 
+    @Transactional
     public void submitItem(Long itemId, Long studentId) {
         log.info("Submitting explanatory note item with id: {}", itemId);
         assertBelongsToStudent(itemId, studentId);
@@ -124,10 +238,14 @@ public class ExplanatoryNoteItemService {
         addHistoryEntry(item, ItemStatus.SUBMITTED, student, null);
         item.setStatus(ItemStatus.SUBMITTED);
         explanatoryNoteRepository.save(item);
+        projectProgressService.recordTransition(item.getProject().getId(), ItemStatus.DRAFT, ItemStatus.SUBMITTED);
+
+        eventPublisher.publishEvent(new ItemSubmittedEvent(itemId, studentId, item.getProject().getId()));
 
         log.info("Explanatory note item with id: {} submitted successfully", itemId);
     }
 
+    @Transactional
     public void approveItem(Long itemId, Long teacherId, String teacherComment) {
         log.info("Approving explanatory note item with id: {}", itemId);
         assertBelongsToTeacher(itemId, teacherId);
@@ -141,10 +259,12 @@ public class ExplanatoryNoteItemService {
         addHistoryEntry(item, ItemStatus.APPROVED, teacher, teacherComment);
         item.setStatus(ItemStatus.APPROVED);
         explanatoryNoteRepository.save(item);
+        projectProgressService.recordTransition(item.getProject().getId(), ItemStatus.SUBMITTED, ItemStatus.APPROVED);
 
         log.info("Explanatory note item with id: {} approved successfully", itemId);
     }
 
+    @Transactional
     public void rejectItem(Long itemId, Long teacherId, String teacherComment) {
         log.info("Rejecting explanatory note item with id: {}", itemId);
         assertBelongsToTeacher(itemId, teacherId);
@@ -158,31 +278,61 @@ public class ExplanatoryNoteItemService {
         addHistoryEntry(item, ItemStatus.REJECTED, teacher, teacherComment);
         item.setStatus(ItemStatus.REJECTED);
         explanatoryNoteRepository.save(item);
+        projectProgressService.recordTransition(item.getProject().getId(), ItemStatus.SUBMITTED, ItemStatus.REJECTED);
 
         log.info("Explanatory note item with id: {} rejected successfully", itemId);
     }
 
-    public String getItemFileName(Long itemId, Long historyId) {
-        ExplanatoryNoteItem item = getItemOrThrow(itemId);
+    public String getItemFileUrl(Long userId, UserRole role, Long projectId, Long itemId, Long historyId)
+            throws Exception {
+        ItemHistory targetHistory = resolveFileHistory(getAccessibleItem(userId, role, projectId, itemId), itemId,
+                historyId);
 
-        if (historyId != null) {
-            return item.getHistory().stream()
-                    .filter(h -> h.getId().equals(historyId) && h.getFileName() != null)
-                    .findFirst()
-                    .map(ItemHistory::getFileName)
-                    .orElseThrow(() -> new NotFoundException("History not found: " + historyId));
-        }
-        return item.getHistory().stream()
-                .filter(h -> h.getFileName() != null)
-                .reduce((first, second) -> second)
-                .map(ItemHistory::getFileName)
-                .orElseThrow(() -> new NotFoundException("No file for item: " + itemId));
+        return storageService.presignObject(objectName(userId, projectId, itemId, targetHistory),
+                targetHistory.getFileName());
+    }
+
+    public ItemFile getItemFileMetadata(Long userId, UserRole role, Long projectId, Long itemId, Long historyId) {
+        ItemHistory targetHistory = resolveFileHistory(getAccessibleItem(userId, role, projectId, itemId), itemId,
+                historyId);
+
+        return new ItemFile(targetHistory.getId(), targetHistory.getFileName(),
+                objectName(userId, projectId, itemId, targetHistory),
+                targetHistory.getChangedAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    public StatObjectResponse statItemFile(ItemFile file) throws Exception {
+        return storageService.statObject(file.objectName());
+    }
+
+    public Optional<CachedFile> openCachedItemFile(ItemFile file) throws Exception {
+        return objectFileCache.open(file.objectName());
+    }
+
+    public InputStream openItemFile(ItemFile file, long offset, Long length) throws Exception {
+        return storageService.downloadObject(file.objectName(), offset, length);
+    }
+
+    private String objectName(Long userId, Long projectId, Long itemId, ItemHistory history) {
+        return storageService.resolveExplanatoryObject(history.getStagedObject(), history.getContentDigest(), userId,
+                projectId, itemId, history.getId(), history.getFileName());
     }
 
-    public InputStream getItemFile(Long userId, Long projectId, Long itemId, Long historyId) throws Exception {
+    private ExplanatoryNoteItem getAccessibleItem(Long userId, UserRole role, Long projectId, Long itemId) {
+        if (role == UserRole.STUDENT) {
+            assertBelongsToStudent(itemId, userId);
+        }
+
         ExplanatoryNoteItem item = getItemOrThrow(itemId);
+        if (!item.getProject().getId().equals(projectId)) {
+            log.warn("Item {} does not belong to project {}", itemId, projectId);
+            throw new NotFoundException("Explanatory note item not found with id: " + itemId);
+        }
+        return item;
+    }
 
-        ItemHistory targetHistory = historyId != null
+    private ItemHistory resolveFileHistory(ExplanatoryNoteItem item, Long itemId, Long historyId) {
+        return historyId != null
                 ? item.getHistory().stream()
                         .filter(h -> h.getId().equals(historyId) && h.getFileName() != null)
                         .findFirst()
@@ -191,9 +341,6 @@ public class ExplanatoryNoteItemService {
                         .filter(h -> h.getFileName() != null)
                         .reduce((first, second) -> second)
                         .orElseThrow(() -> new NotFoundException("No file found for item: " + itemId));
-
-        return storageService.downloadExplanatoryFile(
-                userId, projectId, itemId, targetHistory.getId(), targetHistory.getFileName());
     }
 
     public boolean isItemBelongsToStudent(Long itemId, Long studentId) {
@@ -204,6 +351,14 @@ public class ExplanatoryNoteItemService {
         return explanatoryNoteRepository.existsByIdAndTeacherId(itemId, teacherId);
     }
 
+    public boolean canReadItem(Long itemId, Long userId, UserRole role) {
+        return switch (role) {
+            case STUDENT -> isItemBelongsToStudent(itemId, userId);
+            case TEACHER -> isItemBelongsToTeacher(itemId, userId);
+            case ADMIN -> true;
+        };
+    }
+
     public Long resolveAccessibleUserId(Long requestedUserId, Long principalId, UserRole principalRole) {
         Long targetUserId = requestedUserId == null ? principalId : requestedUserId;
 
@@ -251,7 +406,7 @@ public class ExplanatoryNoteItemService {
     }
 
     private ExplanatoryNoteItem getItemOrThrow(Long itemId) {
-        return explanatoryNoteRepository.findById(itemId)
+        return explanatoryNoteRepository.findWithHistoryById(itemId)
                 .orElseThrow(() -> new NotFoundException("Explanatory note item not found with id: " + itemId));
     }
 
@@ -0,0 +1,112 @@
+package com.github.stepwise.service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.github.stepwise.configuration.TextExtractionConfig;
+import com.github.stepwise.entity.ExtractedText;
+import com.github.stepwise.repository.ExtractedTextRepository;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+import com.github.stepwise.utils.DocumentText;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Plain text of uploaded files, stored once per history entry. Uploads are
+ * extracted in the background after they are finalized; anything missed
+ * (full queue, failed finalize) is extracted on first use.
+ */
+@Service
+@Slf4j
+public class ExtractedTextService {
+
+    private final ExtractedTextRepository extractedTextRepository;
+
+    private final ItemHistoryRepository itemHistoryRepository;
+
+    private final ObjectFileCache objectFileCache;
+
+    private final TextExtractionConfig textExtractionConfig;
+
+    private final ThreadPoolExecutor workers;
+
+    public ExtractedTextService(ExtractedTextRepository extractedTextRepository,
+            ItemHistoryRepository itemHistoryRepository, ObjectFileCache objectFileCache,
+            TextExtractionConfig textExtractionConfig) {
+        this.extractedTextRepository = extractedTextRepository;
+        this.itemHistoryRepository = itemHistoryRepository;
+        this.objectFileCache = objectFileCache;
+        this.textExtractionConfig = textExtractionConfig;
+        this.workers = new ThreadPoolExecutor(textExtractionConfig.getWorkers(), textExtractionConfig.getWorkers(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(textExtractionConfig.getQueueCapacity()),
+                Thread.ofPlatform().name("text-extractor-", 0).daemon().factory());
+    }
+
+    public void extractLater(Long historyId, String objectName) {
+        try {
+            workers.execute(() -> {
+                try {
+                    getText(historyId, objectName);
+                } catch (Exception e) {
+                    log.warn("Failed to extract text for historyId: {}: {}", historyId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.info("Text extraction queue is full, historyId: {} will be extracted on first use", historyId);
+        }
+    }
+
+    public String getText(ItemFile file) {
+        return getText(file.historyId(), file.objectName());
+    }
+
+    public Optional<String> findText(Long historyId) {
+        return extractedTextRepository.findByHistoryId(historyId).map(ExtractedText::getContent);
+    }
+
+    private String getText(Long historyId, String objectName) {
+        return findText(historyId).orElseGet(() -> extractAndStore(historyId, objectName));
+    }
+
+    private String extractAndStore(Long historyId, String objectName) {
+        String text = extract(objectName);
+
+        try {
+            extractedTextRepository.save(ExtractedText.builder()
+                    .history(itemHistoryRepository.getReferenceById(historyId))
+                    .content(text)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            log.info("Stored {} chars of extracted text for historyId: {}", text.length(), historyId);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Extracted text for historyId: {} was stored concurrently", historyId);
+        }
+
+        return text;
+    }
+
+    private String extract(String objectName) {
+        try {
+            return objectFileCache.read(objectName,
+                    file -> DocumentText.extract(file, textExtractionConfig.getMaxChars()));
+        } catch (Exception e) {
+            log.error("Failed to extract text from {}", objectName, e);
+            throw new RuntimeException("Cannot extract text from document: " + e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+}
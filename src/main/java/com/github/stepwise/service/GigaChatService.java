@@ -1,12 +1,28 @@
 package com.github.stepwise.service;
 
-import java.io.InputStream;
-
-import org.apache.pdfbox.Loader;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.UnaryOperator;
+
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import com.github.stepwise.configuration.SummaryConfig;
+import com.github.stepwise.entity.ChunkSummary;
+import com.github.stepwise.repository.ChunkSummaryRepository;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+import com.github.stepwise.utils.ContentDigest;
+import com.github.stepwise.utils.TextChunks;
+
 import chat.giga.client.GigaChatClient;
 import chat.giga.http.client.HttpClientException;
 import chat.giga.model.ModelName;
@@ -14,58 +30,197 @@ import chat.giga.model.completion.ChatMessage;
 import chat.giga.model.completion.ChatMessageRole;
 import chat.giga.model.completion.CompletionRequest;
 import chat.giga.model.completion.CompletionResponse;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Summarizes reports map-reduce style: the text is split into chunks that are
+ * summarized in parallel, and the chunk summaries are combined into the final
+ * one. Chunk summaries are stored by content digest, so a re-uploaded report
+ * only pays for the chunks that changed. When the chunk summaries are still too
+ * long for one call, they are merged in intermediate rounds that are not
+ * stored.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class GigaChatService {
 
-    private final StorageService storageService;
+    // Bump whenever a prompt below changes so stored summaries are regenerated.
+    public static final int PROMPT_VERSION = 3;
+
+    private static final int MAX_REDUCE_ROUNDS = 3;
+
+    private static final String REPORT_PROMPT = """
+            Ты — помощник преподавателя. Тебе дан текст пункта пояснительной записки студента.
+            Сделай краткий структурированный пересказ: основная тема, ключевые разделы, выводы.
+            Объём пересказа — 3–5 абзацев. Отвечай на русском языке.
+
+            Текст отчёта:
+            """;
+
+    private static final String CHUNK_PROMPT = """
+            Ты — помощник преподавателя. Тебе дан фрагмент пояснительной записки студента.
+            Кратко перескажи его содержание: о чём фрагмент, ключевые решения и результаты.
+            Объём — не более одного абзаца. Отвечай на русском языке.
+
+            Фрагмент:
+            """;
+
+    private static final String MERGE_PROMPT = """
+            Ты — помощник преподавателя. Тебе даны пересказы последовательных фрагментов пояснительной
+            записки студента. Сожми их в один связный пересказ, сохранив порядок изложения,
+            ключевые решения и результаты. Объём — не более одного абзаца. Отвечай на русском языке.
+
+            Пересказы фрагментов:
+            """;
+
+    private static final String REDUCE_PROMPT = """
+            Ты — помощник преподавателя. Тебе даны пересказы последовательных фрагментов пункта
+            пояснительной записки студента. Объедини их в краткий структурированный пересказ всего
+            текста: основная тема, ключевые разделы, выводы.
+            Объём пересказа — 3–5 абзацев. Отвечай на русском языке.
+
+            Пересказы фрагментов:
+            """;
+
+    private final ExtractedTextService extractedTextService;
+
+    private final ChunkSummaryRepository chunkSummaryRepository;
 
     private final GigaChatClient client;
 
-    private static final int MAX_TEXT_LENGTH = 7000;
+    private final SummaryConfig summaryConfig;
+
+    private final Semaphore calls;
 
-    public String summarizeReport(Long studentId, Long projectId, Long itemId, Long historyId, String filename) {
-        log.info("Summarizing report for itemId: {}, historyId: {}", itemId, historyId);
+    private final ExecutorService chunkExecutor = Executors.newVirtualThreadPerTaskExecutor();
 
-        String pdfText = extractTextFromPdf(studentId, projectId, itemId, historyId, filename);
-        return callGigaChat(pdfText);
+    private LocalDate usageDay = LocalDate.now();
+
+    private int callsToday;
+
+    public GigaChatService(ExtractedTextService extractedTextService, ChunkSummaryRepository chunkSummaryRepository,
+            GigaChatClient client, SummaryConfig summaryConfig) {
+        this.extractedTextService = extractedTextService;
+        this.chunkSummaryRepository = chunkSummaryRepository;
+        this.client = client;
+        this.summaryConfig = summaryConfig;
+        this.calls = new Semaphore(summaryConfig.getMaxConcurrentCalls());
     }
 
-    private String extractTextFromPdf(Long studentId, Long projectId, Long itemId, Long historyId, String filename) {
-        try (InputStream is = storageService.downloadExplanatoryFile(studentId, projectId, itemId, historyId, filename);
-                PDDocument document = Loader.loadPDF(is.readAllBytes())) {
+    public String summarizeReport(Long itemId, ItemFile file) {
+        log.info("Summarizing report for itemId: {}, historyId: {}", itemId, file.historyId());
 
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document).trim();
+        int chunkChars = summaryConfig.getChunkChars();
+        List<String> chunks = TextChunks.split(extractedTextService.getText(file), chunkChars);
+        if (chunks.isEmpty()) {
+            throw new IllegalStateException("В документе не найден текст для пересказа");
+        }
+        if (chunks.size() == 1) {
+            return callGigaChat(REPORT_PROMPT + chunks.getFirst());
+        }
 
-            if (text.length() > MAX_TEXT_LENGTH) {
-                log.warn("PDF text truncated from {} to {} chars", text.length(), MAX_TEXT_LENGTH);
-                text = text.substring(0, MAX_TEXT_LENGTH);
+        String combined = String.join("\n\n", inParallel(chunks, this::summarizeChunk));
+        for (int round = 1; combined.length() > chunkChars && round < MAX_REDUCE_ROUNDS; round++) {
+            log.debug("Chunk summaries of historyId: {} still span {} chars, merging again", file.historyId(),
+                    combined.length());
+            combined = String.join("\n\n", inParallel(TextChunks.split(combined, chunkChars),
+                    summaries -> callGigaChat(MERGE_PROMPT + summaries)));
+        }
+        if (combined.length() > chunkChars) {
+            log.warn("Chunk summaries truncated from {} to {} chars", combined.length(), chunkChars);
+            combined = combined.substring(0, chunkChars);
+        }
+
+        log.info("Reducing {} chunk summaries for historyId: {}", chunks.size(), file.historyId());
+        return callGigaChat(REDUCE_PROMPT + combined);
+    }
+
+    /**
+     * Summarizes every part concurrently and returns the results in input
+     * order. The first failure interrupts the remaining calls so they stop
+     * spending quota on a summary that can no longer be completed.
+     */
+    private List<String> inParallel(List<String> parts, UnaryOperator<String> summarize) {
+        CompletionService<String> completion = new ExecutorCompletionService<>(chunkExecutor);
+        List<Future<String>> futures = parts.stream()
+                .map(part -> completion.submit(() -> summarize.apply(part)))
+                .toList();
+
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                completion.take().get();
             }
+            return futures.stream().map(Future::resultNow).toList();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for chunk summaries", e);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
 
-            return text;
-        } catch (Exception e) {
-            log.error("Failed to extract text from PDF", e);
-            throw new RuntimeException("Cannot extract text from PDF: " + e.getMessage());
+    private String summarizeChunk(String chunk) {
+        String digest = ContentDigest.of(chunk);
+
+        Optional<ChunkSummary> stored = chunkSummaryRepository.findByDigestAndPromptVersion(digest, PROMPT_VERSION);
+        if (stored.isPresent()) {
+            return stored.get().getSummary();
+        }
+
+        String summary = callGigaChat(CHUNK_PROMPT + chunk);
+        try {
+            chunkSummaryRepository.save(ChunkSummary.builder()
+                    .digest(digest)
+                    .promptVersion(PROMPT_VERSION)
+                    .summary(summary)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Chunk summary {} was stored concurrently", digest);
         }
+        return summary;
     }
 
-    private String callGigaChat(String pdfText) {
-        String prompt = """
-                Ты — помощник преподавателя. Тебе дан текст пункта пояснительной записки студента.
-                Сделай краткий структурированный пересказ: основная тема, ключевые разделы, выводы.
-                Объём пересказа — 3–5 абзацев. Отвечай на русском языке.
+    /**
+     * Number of GigaChat completions requested today, failed ones included,
+     * since each of them counts against the quota.
+     */
+    public synchronized int getCallsToday() {
+        rollUsageDay();
+        return callsToday;
+    }
+
+    private synchronized void recordCall() {
+        rollUsageDay();
+        callsToday++;
+    }
 
-                Текст отчёта:
-                """ + pdfText;
+    private void rollUsageDay() {
+        LocalDate today = LocalDate.now();
+        if (!today.equals(usageDay)) {
+            usageDay = today;
+            callsToday = 0;
+        }
+    }
 
+    private String callGigaChat(String prompt) {
         CompletionResponse res = null;
 
         try {
+            calls.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a GigaChat slot", e);
+        }
+
+        try {
+            recordCall();
             res = client.completions(CompletionRequest.builder()
                     .model(ModelName.GIGA_CHAT_2)
                     .message(ChatMessage.builder()
@@ -75,6 +230,8 @@ public class GigaChatService {
                     .build());
         } catch (HttpClientException ex) {
             throw new RuntimeException("Ошибка при получении данных от GigaChat: " + ex.getMessage(), ex);
+        } finally {
+            calls.release();
         }
 
         if (res == null || res.choices() == null || res.choices().isEmpty()) {
@@ -86,4 +243,9 @@ public class GigaChatService {
 
     }
 
+    @PreDestroy
+    public void shutdown() {
+        chunkExecutor.shutdownNow();
+    }
+
 }
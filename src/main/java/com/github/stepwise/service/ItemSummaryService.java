@@ -0,0 +1,100 @@
+package com.github.stepwise.service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.github.stepwise.entity.ItemSummary;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.repository.ItemSummaryRepository;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Summaries are stored per history entry and prompt version: the file behind
+ * a history entry never changes, so a stored summary stays valid until the
+ * prompt does.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ItemSummaryService {
+
+    private final ItemSummaryRepository itemSummaryRepository;
+
+    private final ItemHistoryRepository itemHistoryRepository;
+
+    private final GigaChatService gigaChatService;
+
+    private final ConcurrentMap<Long, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    public String getSummary(Long itemId, ItemFile file) {
+        Long historyId = file.historyId();
+
+        Optional<String> stored = findSummary(historyId);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> running = inFlight.putIfAbsent(historyId, created);
+        if (running != null) {
+            log.debug("Joining in-flight summary for historyId: {}", historyId);
+            return join(running);
+        }
+
+        try {
+            // Another request may have stored it between the lookup and claiming the slot.
+            String summary = findSummary(historyId).orElseGet(() -> summarizeAndStore(itemId, file));
+            created.complete(summary);
+            return summary;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(historyId, created);
+        }
+    }
+
+    public Optional<String> findSummary(Long historyId) {
+        return itemSummaryRepository.findByHistoryIdAndPromptVersion(historyId, GigaChatService.PROMPT_VERSION)
+                .map(ItemSummary::getSummary);
+    }
+
+    private String summarizeAndStore(Long itemId, ItemFile file) {
+        String summary = gigaChatService.summarizeReport(itemId, file);
+
+        try {
+            itemSummaryRepository.save(ItemSummary.builder()
+                    .history(itemHistoryRepository.getReferenceById(file.historyId()))
+                    .promptVersion(GigaChatService.PROMPT_VERSION)
+                    .summary(summary)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Summary for historyId: {} was stored concurrently", file.historyId());
+        }
+
+        return summary;
+    }
+
+    private static String join(CompletableFuture<String> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+}
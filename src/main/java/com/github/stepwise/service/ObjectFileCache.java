@@ -0,0 +1,360 @@
+package com.github.stepwise.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.stepwise.configuration.MinioConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.minio.GetObjectResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-through disk cache for stored objects. History objects are never
+ * rewritten, so entries are keyed by object name and only leave the cache
+ * when the size cap evicts them.
+ */
+@Component
+@Slf4j
+public class ObjectFileCache {
+
+    private static final String FILE_PREFIX = "object-";
+
+    private static final String FILE_SUFFIX = ".bin";
+
+    /**
+     * Runs against a local file holding an object's content.
+     */
+    @FunctionalInterface
+    public interface FileTask<T> {
+        T run(Path file) throws Exception;
+    }
+
+    /**
+     * A cached file. Pinned entries keep their file when evicted until the
+     * last pin is released, so code that reopens the file by path can rely on
+     * it being there.
+     */
+    private static final class Entry {
+
+        private final Path path;
+
+        private final long size;
+
+        private final String contentType;
+
+        private int pins;
+
+        private boolean evicted;
+
+        private Entry(Path path, long size, String contentType) {
+            this.path = path;
+            this.size = size;
+            this.contentType = contentType;
+        }
+
+        Path path() {
+            return path;
+        }
+
+        long size() {
+            return size;
+        }
+
+        String contentType() {
+            return contentType;
+        }
+
+        synchronized boolean pin() {
+            if (evicted) {
+                return false;
+            }
+            pins++;
+            return true;
+        }
+
+        synchronized void unpin() {
+            if (--pins == 0 && evicted) {
+                deleteQuietly(path);
+            }
+        }
+
+        synchronized void evict() {
+            evicted = true;
+            if (pins == 0) {
+                deleteQuietly(path);
+            }
+        }
+
+    }
+
+    private final StorageService storageService;
+
+    private final MinioConfig.Cache config;
+
+    private final AsyncCache<String, Entry> entries;
+
+    private final Counter bytesServed;
+
+    public ObjectFileCache(StorageService storageService, MinioConfig minioConfig, MeterRegistry meterRegistry)
+            throws IOException {
+        this.storageService = storageService;
+        this.config = minioConfig.getCache();
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .<String, Entry>weigher((objectName, entry) -> (int) Math.min(entry.size(), Integer.MAX_VALUE))
+                .removalListener((objectName, entry, cause) -> {
+                    if (entry != null) {
+                        entry.evict();
+                    }
+                })
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync();
+        this.bytesServed = Counter.builder("object.cache.served")
+                .baseUnit("bytes")
+                .description("Bytes served from the local object cache")
+                .register(meterRegistry);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, entries.synchronous(), "object-files");
+        Gauge.builder("object.cache.hit.ratio", entries.synchronous(), cache -> cache.stats().hitRate())
+                .register(meterRegistry);
+        Gauge.builder("object.cache.size", entries.synchronous(),
+                cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        if (config.isEnabled()) {
+            prepareDirectory();
+        }
+    }
+
+    /**
+     * Opens the object from the local cache, downloading it first on a miss.
+     * Empty when caching is disabled, the object is a transient staged upload,
+     * or the size cap keeps evicting the entry before it can be opened; the
+     * caller then reads the object from storage.
+     */
+    public Optional<CachedFile> open(String objectName) throws Exception {
+        if (!config.isEnabled() || objectName.startsWith(StorageService.STAGING_PREFIX)) {
+            return Optional.empty();
+        }
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            CompletableFuture<Entry> future = lookup(objectName);
+            Entry entry = join(future);
+
+            try {
+                return Optional.of(new CachedFile(FileChannel.open(entry.path(), StandardOpenOption.READ), entry,
+                        bytesServed));
+            } catch (NoSuchFileException e) {
+                // Evicted between lookup and open; load it again.
+                entries.asMap().remove(objectName, future);
+            }
+        }
+
+        log.debug("Object {} was evicted before it could be opened, serving it from storage", objectName);
+        return Optional.empty();
+    }
+
+    public InputStream openStream(String objectName) throws Exception {
+        Optional<CachedFile> cached = open(objectName);
+        return cached.isPresent() ? cached.get().inputStream() : storageService.downloadObject(objectName);
+    }
+
+    /**
+     * Runs {@code task} on the cached file of the object, pinned so eviction
+     * cannot delete it while the task runs. When the object is not cached
+     * (caching disabled, a staged upload, or the entry keeps being evicted)
+     * it is spooled to a temporary file for the task instead.
+     */
+    public <T> T read(String objectName, FileTask<T> task) throws Exception {
+        if (config.isEnabled() && !objectName.startsWith(StorageService.STAGING_PREFIX)) {
+            for (int attempt = 0; attempt < 2; attempt++) {
+                CompletableFuture<Entry> future = lookup(objectName);
+                Entry entry = join(future);
+
+                if (entry.pin()) {
+                    try {
+                        return task.run(entry.path());
+                    } finally {
+                        entry.unpin();
+                    }
+                }
+                entries.asMap().remove(objectName, future);
+            }
+        }
+
+        Path spool = Files.createTempFile(FILE_PREFIX + "spool-", FILE_SUFFIX);
+        try {
+            try (InputStream is = storageService.downloadObject(objectName)) {
+                Files.copy(is, spool, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return task.run(spool);
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    private CompletableFuture<Entry> lookup(String objectName) {
+        CompletableFuture<Entry> future = entries.getIfPresent(objectName);
+        return future != null ? future : load(objectName);
+    }
+
+    /**
+     * Downloads the object on the calling thread. Only the pending future is
+     * placed in the map, so the transfer holds no lock and concurrent misses
+     * on the same object wait for this download instead of starting another.
+     */
+    private CompletableFuture<Entry> load(String objectName) {
+        CompletableFuture<Entry> loading = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = entries.asMap().putIfAbsent(objectName, loading);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            loading.complete(download(objectName));
+        } catch (Exception e) {
+            // A failed future is dropped from the cache, so the next request retries.
+            loading.completeExceptionally(e);
+        }
+        return loading;
+    }
+
+    private static Entry join(CompletableFuture<Entry> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Entry download(String objectName) throws Exception {
+        Path file = null;
+        try (GetObjectResponse response = storageService.getObject(objectName)) {
+            file = Files.createTempFile(config.getDirectory(), FILE_PREFIX, FILE_SUFFIX);
+            long size = Files.copy(response, file, StandardCopyOption.REPLACE_EXISTING);
+            String contentType = response.headers().get("Content-Type");
+
+            log.debug("Cached object {} ({} bytes)", objectName, size);
+            return new Entry(file, size, contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        } catch (Exception e) {
+            if (file != null) {
+                deleteQuietly(file);
+            }
+            throw e;
+        }
+    }
+
+    private void prepareDirectory() throws IOException {
+        Files.createDirectories(config.getDirectory());
+
+        // The index lives in memory, so files left by a previous run cannot be looked up again. Only files
+        // named by this cache are removed, in case the directory is shared.
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(config.getDirectory(),
+                FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path leftover : leftovers) {
+                if (Files.isRegularFile(leftover)) {
+                    deleteQuietly(leftover);
+                }
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete cached object file {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * An open handle on a cached object. The channel stays readable even if
+     * the entry is evicted while it is being served.
+     */
+    public static final class CachedFile implements Closeable {
+
+        private final FileChannel channel;
+
+        private final Entry entry;
+
+        private final Counter bytesServed;
+
+        private CachedFile(FileChannel channel, Entry entry, Counter bytesServed) {
+            this.channel = channel;
+            this.entry = entry;
+            this.bytesServed = bytesServed;
+        }
+
+        public long size() {
+            return entry.size();
+        }
+
+        public String contentType() {
+            return entry.contentType();
+        }
+
+        /**
+         * Writes {@code count} bytes starting at {@code offset}. The target is
+         * a plain output stream, so this is not zero-copy: the bytes still pass
+         * through a heap buffer on their way out.
+         */
+        public void transferTo(long offset, long count, OutputStream out) throws IOException {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = offset;
+            long end = offset + count;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new IOException("Cached object truncated at " + position + " of " + entry.size());
+                }
+                position += transferred;
+            }
+            bytesServed.increment(count);
+        }
+
+        public InputStream inputStream() {
+            bytesServed.increment(entry.size());
+            return Channels.newInputStream(channel);
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+    }
+
+}
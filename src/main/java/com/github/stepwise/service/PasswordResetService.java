@@ -16,6 +16,8 @@ import com.github.stepwise.entity.PasswordResetToken;
 import com.github.stepwise.entity.User;
 import com.github.stepwise.repository.PasswordResetTokenRepository;
 import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.security.PrincipalCache;
+import com.github.stepwise.security.TokenVersionCache;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
@@ -40,6 +42,12 @@ public class PasswordResetService {
 
     private final MailConfigurationProperties mailConfig;
 
+    private final PrincipalCache principalCache;
+
+    private final TokenVersionCache tokenVersionCache;
+
+    private final RefreshTokenService refreshTokenService;
+
     public void requestPasswordReset(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
@@ -88,7 +96,12 @@ public class PasswordResetService {
             user.setTempPassword(null);
         }
 
+        user.setTokenVersion(user.getTokenVersion() + 1);
+
         userRepository.save(user);
+        principalCache.evictAfterCommit(user.getUsername());
+        tokenVersionCache.evictAfterCommit(user.getId());
+        refreshTokenService.revokeAll(user.getId());
 
         tokenRepository.delete(resetToken);
 
@@ -0,0 +1,145 @@
+package com.github.stepwise.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.stepwise.configuration.ProjectProgressConfig;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.entity.ProjectProgress;
+import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ExplanatoryNoteRepository.ItemState;
+import com.github.stepwise.repository.ExplanatoryNoteRepository.StatusCount;
+import com.github.stepwise.repository.ProjectProgressRepository;
+import com.github.stepwise.web.dto.ProjectProgressDto;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the per-project item counters in step with item transitions. A
+ * transition applies its delta in the caller's transaction; a project without
+ * a counter row yet is rebuilt from its items instead. The repair job rebuilds
+ * every project periodically to correct any drift, so the counters serve list
+ * and progress reads but not decisions that must be exact.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProjectProgressService {
+
+    private final ProjectProgressRepository projectProgressRepository;
+
+    private final ExplanatoryNoteRepository explanatoryNoteRepository;
+
+    private final ProjectProgressConfig projectProgressConfig;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Records an item of the project moving from {@code from} to {@code to};
+     * {@code from} is null for a newly created item.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordTransition(Long projectId, ItemStatus from, ItemStatus to) {
+        int updated = projectProgressRepository.applyTransition(projectId, from == null ? 1 : 0,
+                delta(ItemStatus.SUBMITTED, from, to), delta(ItemStatus.APPROVED, from, to),
+                delta(ItemStatus.REJECTED, from, to), to, LocalDateTime.now());
+
+        if (updated == 0) {
+            log.debug("No progress row for projectId: {}, rebuilding it", projectId);
+            rebuild(projectId);
+        }
+    }
+
+    @Transactional
+    public ProjectProgress getProgress(Long projectId) {
+        return projectProgressRepository.findById(projectId).orElseGet(() -> rebuild(projectId));
+    }
+
+    public List<ProjectProgressDto> getByWorkId(Long workId) {
+        log.info("Fetching project progress for work id: {}", workId);
+        return projectProgressRepository.findRowsByAcademicWorkId(workId).stream()
+                .map(ProjectProgressDto::fromRow)
+                .toList();
+    }
+
+    @Transactional
+    public ProjectProgress rebuild(Long projectId) {
+        ProjectProgress progress = projectProgressRepository.findForUpdate(projectId)
+                .orElseGet(() -> createRow(projectId));
+
+        int items = 0;
+        progress.setSubmittedCount(0);
+        progress.setApprovedCount(0);
+        progress.setRejectedCount(0);
+        for (StatusCount count : explanatoryNoteRepository.countByProjectIdGroupByStatus(projectId)) {
+            int value = count.getCount().intValue();
+            items += value;
+            switch (count.getStatus()) {
+                case SUBMITTED -> progress.setSubmittedCount(value);
+                case APPROVED -> progress.setApprovedCount(value);
+                case REJECTED -> progress.setRejectedCount(value);
+                case DRAFT -> {
+                }
+            }
+        }
+        progress.setItemCount(items);
+        progress.setLatestItemStatus(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(projectId)
+                .map(ItemState::getStatus)
+                .orElse(null));
+        progress.setUpdatedAt(LocalDateTime.now());
+
+        return projectProgressRepository.save(progress);
+    }
+
+    @Scheduled(fixedDelayString = "${project-progress.repair-interval}",
+            initialDelayString = "${project-progress.repair-initial-delay}")
+    public void repair() {
+        long cursor = 0;
+        int rebuilt = 0;
+        List<Long> batch;
+        while (!(batch = projectProgressRepository.findProjectIdsAfter(cursor,
+                Limit.of(projectProgressConfig.getRepairBatchSize()))).isEmpty()) {
+            for (Long projectId : batch) {
+                try {
+                    transactionTemplate.execute(status -> rebuild(projectId));
+                    rebuilt++;
+                } catch (Exception e) {
+                    log.warn("Failed to rebuild progress of projectId: {}: {}", projectId, e.getMessage());
+                }
+            }
+            cursor = batch.getLast();
+        }
+
+        Integer removed = transactionTemplate.execute(status -> projectProgressRepository.deleteOrphans());
+        log.info("Rebuilt progress of {} projects, removed {} orphaned rows", rebuilt, removed);
+    }
+
+    /**
+     * Inserts an empty row in its own transaction, so a concurrent first
+     * transition of the same project that wins the insert does not roll back
+     * the caller, and then locks the row for the rebuild.
+     */
+    private ProjectProgress createRow(Long projectId) {
+        try {
+            projectProgressRepository.insertEmpty(projectId, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Progress row for projectId: {} was created concurrently", projectId);
+        }
+        return projectProgressRepository.findForUpdate(projectId)
+                .orElseThrow(() -> new IllegalStateException("No progress row for projectId: " + projectId));
+    }
+
+    private static int delta(ItemStatus counted, ItemStatus from, ItemStatus to) {
+        return (to == counted ? 1 : 0) - (from == counted ? 1 : 0);
+    }
+
+}
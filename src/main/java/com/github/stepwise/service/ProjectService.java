@@ -1,11 +1,15 @@
 package com.github.stepwise.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.github.stepwise.configuration.MailConfigurationProperties;
 import com.github.stepwise.entity.ItemStatus;
@@ -14,8 +18,14 @@ import com.github.stepwise.entity.ProjectStatus;
 import com.github.stepwise.entity.User;
 import com.github.stepwise.entity.UserRole;
 import com.github.stepwise.exception.NotFoundException;
+import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ExplanatoryNoteRepository.ItemRow;
 import com.github.stepwise.repository.ProjectRepository;
+import com.github.stepwise.repository.ProjectRepository.ProjectRow;
 import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.web.dto.ExplanatoryNoteItemResponseDto;
+import com.github.stepwise.web.dto.ProjectResponseDto;
+import com.github.stepwise.web.dto.UserResponseDto;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +37,8 @@ public class ProjectService {
 
     private final ProjectRepository projectRepository;
 
+    private final ExplanatoryNoteRepository explanatoryNoteRepository;
+
     private final UserRepository userRepository;
 
     private final JavaMailSender mailSender;
@@ -43,34 +55,68 @@ public class ProjectService {
         return projectRepository.save(project);
     }
 
+    @Transactional(readOnly = true)
     public Project getByProjectId(Long projectId) {
         log.info("Fetching project id: {}", projectId);
-        return getByIdOrThrow(projectId);
+        Project project = projectRepository.findWithItemsById(projectId)
+                .orElseThrow(() -> new NotFoundException("Project not found with id: " + projectId));
+        fetchItemHistory(List.of(project));
+        return project;
     }
 
+    @Transactional(readOnly = true)
     public List<Project> getAllByWorkId(Long workId) {
         log.info("Fetching all projects for work id: {}", workId);
-        return projectRepository.findAllByAcademicWorkId(workId);
+        return fetchItemHistory(projectRepository.findWithItemsByAcademicWorkId(workId));
     }
 
+    @Transactional(readOnly = true)
     public List<Project> getAllByWorkIdAndStudentId(Long workId, Long studentId) {
         log.info("Fetching all projects for work id: {}, student id: {}", workId, studentId);
-        return projectRepository.findAllByAcademicWorkIdAndStudentId(workId, studentId);
+        return fetchItemHistory(projectRepository.findWithItemsByAcademicWorkIdAndStudentId(workId, studentId));
+    }
+
+    /**
+     * Teacher's list of the projects of a work, read as flat rows: one query for
+     * the projects with their owners and one for the non-draft items with the
+     * latest uploaded file name. Item history is not included.
+     */
+    @Transactional(readOnly = true)
+    public List<ProjectResponseDto> getOverviewByWorkId(Long workId) {
+        log.info("Fetching project overview for work id: {}", workId);
+
+        List<ProjectRow> projects = projectRepository.findRowsByAcademicWorkId(workId);
+        if (projects.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<ExplanatoryNoteItemResponseDto>> itemsByProjectId = explanatoryNoteRepository
+                .findRowsByAcademicWorkIdAndStatusNot(workId, ItemStatus.DRAFT).stream()
+                .collect(Collectors.groupingBy(ItemRow::getProjectId,
+                        Collectors.mapping(ProjectService::toItemDto, Collectors.toList())));
+
+        return projects.stream()
+                .map(row -> toProjectDto(row, itemsByProjectId.getOrDefault(row.getId(), new ArrayList<>())))
+                .toList();
     }
 
+    @Transactional(readOnly = true)
     public List<Project> getForRequester(Long workId, Long principalId, UserRole principalRole) {
         return principalRole == UserRole.STUDENT
                 ? getAllByWorkIdAndStudentId(workId, principalId)
                 : getAllByWorkId(workId);
     }
 
+    @Transactional
     public Project approve(Long projectId) {
         log.info("Approving project with id: {}", projectId);
 
         Project project = getByIdOrThrow(projectId);
 
-        int approvedItemsCount = (int) project.getItems().stream()
-                .filter(item -> item.getStatus() == ItemStatus.APPROVED).count();
+        int approvedItemsCount = explanatoryNoteRepository.countByProjectIdGroupByStatus(projectId).stream()
+                .filter(count -> count.getStatus() == ItemStatus.APPROVED)
+                .mapToInt(count -> count.getCount().intValue())
+                .sum();
         int workItemsCount = project.getAcademicWork().getWorkTemplate().getWorkTemplateChapters().size();
 
         if (approvedItemsCount != workItemsCount) {
@@ -129,14 +175,16 @@ public class ProjectService {
         return projectRepository.existsByIdAndTeacherId(projectId, teacherId);
     }
 
+    @Transactional(readOnly = true)
     public Project getForStudent(Long projectId, Long studentId) {
         if (!isProjectBelongsToStudent(projectId, studentId)) {
             log.warn("Project {} does not belong to student {}", projectId, studentId);
             throw new NotFoundException("Project not found with id: " + projectId);
         }
-        return getByIdOrThrow(projectId);
+        return getByProjectId(projectId);
     }
 
+    @Transactional
     public Project approveAsTeacher(Long projectId, Long teacherId) {
         assertBelongsToTeacher(projectId, teacherId);
         return approve(projectId);
@@ -154,6 +202,43 @@ public class ProjectService {
         }
     }
 
+    // Items come with the project query; their histories are loaded by one more query for all of them.
+    private List<Project> fetchItemHistory(List<Project> projects) {
+        if (!projects.isEmpty()) {
+            explanatoryNoteRepository.fetchHistory(projects);
+        }
+        return projects;
+    }
+
+    private static ProjectResponseDto toProjectDto(ProjectRow row, List<ExplanatoryNoteItemResponseDto> items) {
+        return ProjectResponseDto.builder()
+                .id(row.getId())
+                .title(row.getTitle())
+                .description(row.getDescription())
+                .owner(UserResponseDto.builder()
+                        .id(row.getOwnerId())
+                        .username(row.getOwnerUsername())
+                        .email(row.getOwnerEmail())
+                        .role(row.getOwnerRole().name())
+                        .firstName(row.getOwnerFirstName())
+                        .lastName(row.getOwnerLastName())
+                        .middleName(row.getOwnerMiddleName())
+                        .build())
+                .grade(row.getGrade())
+                .items(items)
+                .status(row.getStatus())
+                .build();
+    }
+
+    private static ExplanatoryNoteItemResponseDto toItemDto(ItemRow row) {
+        return ExplanatoryNoteItemResponseDto.builder()
+                .id(row.getId())
+                .orderNumber(row.getOrderNumber())
+                .status(row.getStatus())
+                .latestFileName(row.getLatestFileName())
+                .build();
+    }
+
     private Project getByIdOrThrow(Long projectId) {
         return projectRepository.findById(projectId)
                 .orElseThrow(() -> new NotFoundException("Project not found with id: " + projectId));
@@ -0,0 +1,97 @@
+package com.github.stepwise.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.entity.RefreshToken;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.exception.InvalidRefreshTokenException;
+import com.github.stepwise.repository.RefreshTokenRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final JwtConfigurationProperties jwtConfig;
+
+    public record Rotation(User user, String refreshToken) {
+    }
+
+    @Transactional
+    public String issue(User user) {
+        Instant now = Instant.now();
+        refreshTokenRepository.deleteExpiredByUserId(user.getId(), now);
+
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .user(user)
+                .issuedAt(now)
+                .expiresAt(now.plus(jwtConfig.getRefreshExpiration()))
+                .build());
+
+        return rawToken;
+    }
+
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHashWithUser(hash(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
+        User user = token.getUser();
+
+        if (token.getRevokedAt() != null) {
+            log.warn("Reuse of revoked refresh token detected for user {}, revoking all sessions", user.getId());
+            refreshTokenRepository.deleteAllByUserId(user.getId());
+            throw new InvalidRefreshTokenException("Refresh token has been revoked");
+        }
+
+        if (token.getExpiresAt().isBefore(Instant.now())) {
+            refreshTokenRepository.delete(token);
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+
+        token.setRevokedAt(Instant.now());
+        refreshTokenRepository.save(token);
+
+        log.info("Rotating refresh token for user: {}", user.getUsername());
+        return new Rotation(user, issue(user));
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        int revoked = refreshTokenRepository.deleteAllByUserId(userId);
+        log.info("Revoked {} refresh tokens for user {}", revoked, userId);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+}
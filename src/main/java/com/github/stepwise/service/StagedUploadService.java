@@ -0,0 +1,155 @@
+package com.github.stepwise.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.stepwise.configuration.MinioConfig;
+import com.github.stepwise.entity.ExplanatoryNoteItem;
+import com.github.stepwise.entity.ItemHistory;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.event.ExplanatoryFileStagedEvent;
+import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.repository.ItemHistoryRepository.StagedUpload;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StagedUploadService {
+
+    private final StorageService storageService;
+
+    private final ItemHistoryRepository itemHistoryRepository;
+
+    private final MinioConfig minioConfig;
+
+    private final ExtractedTextService extractedTextService;
+
+    private final ExplanatoryNoteRepository explanatoryNoteRepository;
+
+    private final ProjectProgressService projectProgressService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onFileStaged(ExplanatoryFileStagedEvent event) {
+        try {
+            if (event.contentDigest() != null) {
+                storageService.storeBlob(event.stagedObject(), event.contentDigest());
+            } else {
+                storageService.finalizeExplanatoryFile(event.stagedObject(), event.studentId(), event.projectId(),
+                        event.itemId(), event.historyId(), event.fileName());
+            }
+            itemHistoryRepository.clearStagedObject(event.historyId());
+            removeStagedObject(event.stagedObject());
+            extractedTextService.extractLater(event.historyId(), storageService.resolveExplanatoryObject(null,
+                    event.contentDigest(), event.studentId(), event.projectId(), event.itemId(), event.historyId(),
+                    event.fileName()));
+        } catch (Exception e) {
+            log.warn("Failed to finalize staged upload {} for historyId: {}, leaving it to the reconciler: {}",
+                    event.stagedObject(), event.historyId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${minio.reconcile-interval}", initialDelayString = "${minio.reconcile-interval}")
+    public void reconcile() {
+        Instant cutoff = Instant.now().minus(minioConfig.getStagingGracePeriod());
+
+        for (StagedUpload upload : itemHistoryRepository
+                .findStagedBefore(LocalDateTime.ofInstant(cutoff, ZoneId.systemDefault()))) {
+            try {
+                reconcileHistory(upload);
+            } catch (Exception e) {
+                log.warn("Failed to reconcile staged upload for historyId: {}: {}", upload.getHistoryId(),
+                        e.getMessage());
+            }
+        }
+
+        try {
+            for (String stagedObject : storageService.listStagedObjects(cutoff)) {
+                if (!itemHistoryRepository.existsByStagedObject(stagedObject)) {
+                    log.info("Removing orphan staged object {}", stagedObject);
+                    storageService.removeObject(stagedObject);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to clean up orphan staged objects: {}", e.getMessage());
+        }
+    }
+
+    private void reconcileHistory(StagedUpload upload) throws Exception {
+        if (storageService.objectExists(upload.getStagedObject())) {
+            log.info("Finalizing staged upload {} for historyId: {}", upload.getStagedObject(),
+                    upload.getHistoryId());
+            if (upload.getContentDigest() != null) {
+                storageService.storeBlob(upload.getStagedObject(), upload.getContentDigest());
+            } else {
+                storageService.finalizeExplanatoryFile(upload.getStagedObject(), upload.getStudentId(),
+                        upload.getProjectId(), upload.getItemId(), upload.getHistoryId(), upload.getFileName());
+            }
+            itemHistoryRepository.clearStagedObject(upload.getHistoryId());
+            removeStagedObject(upload.getStagedObject());
+            extractedTextService.extractLater(upload.getHistoryId(), storageService.resolveExplanatoryObject(null,
+                    upload.getContentDigest(), upload.getStudentId(), upload.getProjectId(), upload.getItemId(),
+                    upload.getHistoryId(), upload.getFileName()));
+            return;
+        }
+
+        boolean stored = upload.getContentDigest() != null
+                ? storageService.objectExists(storageService.blobObjectName(upload.getContentDigest()))
+                : storageService.explanatoryFileExists(upload.getStudentId(), upload.getProjectId(),
+                        upload.getItemId(), upload.getHistoryId(), upload.getFileName());
+        if (stored) {
+            itemHistoryRepository.clearStagedObject(upload.getHistoryId());
+            return;
+        }
+
+        log.warn("No stored file for historyId: {}, discarding the orphan draft", upload.getHistoryId());
+        transactionTemplate.executeWithoutResult(status -> discardOrphanDraft(upload));
+    }
+
+    // Runs only once no history entry points at the object; a failure here leaves it to the orphan sweep.
+    private void removeStagedObject(String stagedObject) {
+        try {
+            storageService.removeObject(stagedObject);
+        } catch (Exception e) {
+            log.warn("Failed to remove finalized staged object {}, leaving it to the orphan sweep: {}", stagedObject,
+                    e.getMessage());
+        }
+    }
+
+    private void discardOrphanDraft(StagedUpload upload) {
+        ItemHistory entry = itemHistoryRepository.findById(upload.getHistoryId()).orElse(null);
+        if (entry == null) {
+            return;
+        }
+
+        ExplanatoryNoteItem item = entry.getItem();
+        boolean current = item.getStatus() == ItemStatus.DRAFT
+                && !itemHistoryRepository.existsByItemIdAndIdGreaterThan(item.getId(), entry.getId());
+
+        if (current && itemHistoryRepository.countByItemId(item.getId()) == 1) {
+            log.info("Removing itemId: {} created by the orphan draft", item.getId());
+            explanatoryNoteRepository.delete(item);
+        } else {
+            itemHistoryRepository.delete(entry);
+            if (current && entry.getPreviousStatus() == ItemStatus.REJECTED) {
+                log.info("Returning itemId: {} to REJECTED", item.getId());
+                item.setStatus(ItemStatus.REJECTED);
+            }
+        }
+
+        projectProgressService.rebuild(upload.getProjectId());
+    }
+
+}
@@ -1,11 +1,25 @@
 package com.github.stepwise.service;
 
 import io.minio.BucketExistsArgs;
+import io.minio.CopyObjectArgs;
+import io.minio.CopySource;
 import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.ListObjectsArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,19 +27,92 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import com.github.stepwise.configuration.MinioConfig;
+import com.github.stepwise.utils.ContentDigest;
+import java.io.FilterInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class StorageService {
 
+    public static final String STAGING_PREFIX = "staging/";
+
+    public static final String BLOB_PREFIX = "blobs/";
+
+    private static final int MAX_DELETE_BATCH = 1000;
+
     private final MinioClient minioClient;
 
     private final MinioConfig minioConfig;
 
+    private Semaphore inFlight;
+
+    public record BatchResult<T>(String objectName, T value, Exception error) {
+
+        public static <T> BatchResult<T> succeeded(String objectName, T value) {
+            return new BatchResult<>(objectName, value, null);
+        }
+
+        public static <T> BatchResult<T> failed(String objectName, Exception error) {
+            return new BatchResult<>(objectName, null, error);
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+    }
+
+    /**
+     * A freshly staged upload. {@code contentDigest} is only computed when the
+     * content-addressed layout is enabled.
+     */
+    public record StagedFile(String objectName, String contentDigest) {
+
+    }
+
+    public record ObjectUpload(String objectName, Callable<InputStream> content, long size, String contentType) {
+
+    }
+
+    @FunctionalInterface
+    private interface ObjectTask<T> {
+        T run(String objectName) throws Exception;
+    }
+
     @PostConstruct
     public void init() {
+        inFlight = new Semaphore(minioConfig.getMaxInFlight());
         try {
             for (String bucketName : minioConfig.getBucketNames())
                 if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build()))
@@ -35,34 +122,331 @@ public class StorageService {
         }
     }
 
-    public void uploadExplanatoryFile(Long studentId, Long projectId, Long itemId, Long historyId, MultipartFile file)
-            throws Exception {
-        String objectName = String.format("%d/%d/%d/%d/%s", studentId, projectId, itemId, historyId,
-                file.getOriginalFilename());
+    public StagedFile stageExplanatoryFile(MultipartFile file) throws Exception {
+        return stage(file.getInputStream(), file.getSize(), -1, file.getContentType());
+    }
+
+    public StagedFile stageExplanatoryStream(InputStream stream, String contentType) throws Exception {
+        return stage(stream, -1, minioConfig.getStreamPartSize().toBytes(), contentType);
+    }
+
+    private StagedFile stage(InputStream stream, long size, long partSize, String contentType) throws Exception {
+        String objectName = STAGING_PREFIX + UUID.randomUUID();
+        MessageDigest digest = minioConfig.isContentAddressed() ? ContentDigest.newDigest() : null;
 
         minioClient.putObject(PutObjectArgs.builder()
                 .bucket(minioConfig.getBucketNames().get(0))
                 .object(objectName)
-                .stream(file.getInputStream(), file.getSize(), -1)
-                .contentType(file.getContentType())
+                .stream(digest != null ? new DigestInputStream(stream, digest) : stream, size, partSize)
+                .contentType(contentType)
                 .build());
+
+        return new StagedFile(objectName, digest != null ? ContentDigest.hex(digest) : null);
     }
 
-    public void deleteExplanatoryFile(Long studentId, Long projectId, Long itemId, Long historyId, String filename)
-            throws Exception {
-        String objectName = String.format("%d/%d/%d/%d/%s", studentId, projectId, itemId, historyId, filename);
+    /**
+     * Copies a staged upload to its final path. The staged object is kept:
+     * readers resolve to it until the history entry stops pointing at it, so
+     * the caller removes it only after clearing that pointer.
+     */
+    public void finalizeExplanatoryFile(String stagedObject, Long studentId, Long projectId, Long itemId,
+            Long historyId, String filename) throws Exception {
+        String bucket = minioConfig.getBucketNames().get(0);
 
-        minioClient.removeObject(RemoveObjectArgs.builder()
+        minioClient.copyObject(CopyObjectArgs.builder()
+                .bucket(bucket)
+                .object(explanatoryObjectName(studentId, projectId, itemId, historyId, filename))
+                .source(CopySource.builder().bucket(bucket).object(stagedObject).build())
+                .build());
+    }
+
+    /**
+     * Copies {@code sourceObject} to its blob key unless a blob with the same
+     * digest is already stored.
+     */
+    public void storeBlob(String sourceObject, String contentDigest) throws Exception {
+        String blobObject = blobObjectName(contentDigest);
+        if (objectExists(blobObject)) {
+            log.debug("Blob {} already stored, skipping copy of {}", contentDigest, sourceObject);
+            return;
+        }
+
+        String bucket = minioConfig.getBucketNames().get(0);
+        minioClient.copyObject(CopyObjectArgs.builder()
+                .bucket(bucket)
+                .object(blobObject)
+                .source(CopySource.builder().bucket(bucket).object(sourceObject).build())
+                .build());
+    }
+
+    public boolean explanatoryFileExists(Long studentId, Long projectId, Long itemId, Long historyId,
+            String filename) throws Exception {
+        return objectExists(explanatoryObjectName(studentId, projectId, itemId, historyId, filename));
+    }
+
+    public boolean objectExists(String objectName) throws Exception {
+        try {
+            minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(minioConfig.getBucketNames().get(0))
+                    .object(objectName).build());
+            return true;
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    public InputStream downloadObject(String objectName) throws Exception {
+        return getObject(objectName);
+    }
+
+    public GetObjectResponse getObject(String objectName) throws Exception {
+        return minioClient.getObject(GetObjectArgs.builder()
                 .bucket(minioConfig.getBucketNames().get(0))
                 .object(objectName).build());
     }
 
-    public InputStream downloadExplanatoryFile(Long studentId, Long projectId, Long itemId, Long historyId,
-            String filename) throws Exception {
-        String objectName = String.format("%d/%d/%d/%d/%s", studentId, projectId, itemId, historyId, filename);
+    public String presignObject(String objectName, String downloadName) throws Exception {
+        return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                .method(Method.GET)
+                .bucket(minioConfig.getBucketNames().get(0))
+                .object(objectName)
+                .expiry((int) minioConfig.getPresignedUrlExpiry().toSeconds(), TimeUnit.SECONDS)
+                .extraQueryParams(Map.of("response-content-disposition", "attachment; filename*=UTF-8''"
+                        + URLEncoder.encode(downloadName, StandardCharsets.UTF_8).replace("+", "%20")))
+                .build());
+    }
+
+    public StatObjectResponse statObject(String objectName) throws Exception {
+        return minioClient.statObject(StatObjectArgs.builder()
+                .bucket(minioConfig.getBucketNames().get(0))
+                .object(objectName).build());
+    }
 
+    public InputStream downloadObject(String objectName, long offset, Long length) throws Exception {
         return minioClient.getObject(GetObjectArgs.builder()
+                .bucket(minioConfig.getBucketNames().get(0))
+                .object(objectName)
+                .offset(offset)
+                .length(length).build());
+    }
+
+    public void removeObject(String objectName) throws Exception {
+        minioClient.removeObject(RemoveObjectArgs.builder()
                 .bucket(minioConfig.getBucketNames().get(0))
                 .object(objectName).build());
     }
+
+    public List<String> listStagedObjects(Instant modifiedBefore) throws Exception {
+        List<String> objectNames = new ArrayList<>();
+
+        for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(minioConfig.getBucketNames().get(0))
+                .prefix(STAGING_PREFIX)
+                .recursive(true)
+                .build())) {
+            Item item = result.get();
+            if (item.lastModified().toInstant().isBefore(modifiedBefore)) {
+                objectNames.add(item.objectName());
+            }
+        }
+
+        return objectNames;
+    }
+
+    /**
+     * Opens every object concurrently and yields results in completion order.
+     * Each successful stream holds one in-flight slot until it is closed;
+     * closing the returned stream closes any stream not yet consumed.
+     */
+    public Stream<BatchResult<InputStream>> getObjects(List<String> objectNames) {
+        return runBatch(objectNames, objectName -> {
+            inFlight.acquire();
+            try {
+                return new PermitInputStream(downloadObject(objectName), inFlight);
+            } catch (Exception e) {
+                inFlight.release();
+                throw e;
+            }
+        }, StorageService::closeQuietly);
+    }
+
+    public Stream<BatchResult<String>> putObjects(List<ObjectUpload> uploads) {
+        Map<String, ObjectUpload> byName = new LinkedHashMap<>();
+        uploads.forEach(upload -> byName.put(upload.objectName(), upload));
+
+        return runBatch(new ArrayList<>(byName.keySet()), objectName -> {
+            ObjectUpload upload = byName.get(objectName);
+            inFlight.acquire();
+            try (InputStream content = upload.content().call()) {
+                return minioClient.putObject(PutObjectArgs.builder()
+                        .bucket(minioConfig.getBucketNames().get(0))
+                        .object(objectName)
+                        .stream(content, upload.size(),
+                                upload.size() < 0 ? minioConfig.getStreamPartSize().toBytes() : -1)
+                        .contentType(upload.contentType())
+                        .build()).etag();
+            } finally {
+                inFlight.release();
+            }
+        }, etag -> {
+        });
+    }
+
+    public Stream<BatchResult<String>> removeObjects(List<String> objectNames) {
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < objectNames.size(); i += MAX_DELETE_BATCH) {
+            chunks.add(objectNames.subList(i, Math.min(i + MAX_DELETE_BATCH, objectNames.size())));
+        }
+
+        Map<String, List<String>> byFirstName = new LinkedHashMap<>();
+        chunks.forEach(chunk -> byFirstName.put(chunk.getFirst(), chunk));
+
+        return runBatch(new ArrayList<>(byFirstName.keySet()), firstName -> {
+            inFlight.acquire();
+            try {
+                return removeChunk(byFirstName.get(firstName));
+            } finally {
+                inFlight.release();
+            }
+        }, results -> {
+        }).flatMap(chunkResult -> chunkResult.isSuccess()
+                ? chunkResult.value().stream()
+                : byFirstName.get(chunkResult.objectName()).stream()
+                        .map(objectName -> BatchResult.<String>failed(objectName, chunkResult.error())));
+    }
+
+    private List<BatchResult<String>> removeChunk(List<String> objectNames) throws Exception {
+        Map<String, String> errors = new HashMap<>();
+        for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                .bucket(minioConfig.getBucketNames().get(0))
+                .objects(objectNames.stream().map(DeleteObject::new).toList())
+                .build())) {
+            DeleteError error = result.get();
+            errors.put(error.objectName(), error.code() + ": " + error.message());
+        }
+
+        return objectNames.stream()
+                .map(objectName -> errors.containsKey(objectName)
+                        ? BatchResult.<String>failed(objectName, new IllegalStateException(errors.get(objectName)))
+                        : BatchResult.succeeded(objectName, objectName))
+                .toList();
+    }
+
+    private <T> Stream<BatchResult<T>> runBatch(List<String> objectNames, ObjectTask<T> task, Consumer<T> discard) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CompletionService<BatchResult<T>> completion = new ExecutorCompletionService<>(executor);
+        List<Future<BatchResult<T>>> futures = new ArrayList<>(objectNames.size());
+
+        for (String objectName : objectNames) {
+            futures.add(completion.submit(() -> {
+                try {
+                    return BatchResult.succeeded(objectName, task.run(objectName));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return BatchResult.failed(objectName, e);
+                } catch (Exception e) {
+                    log.warn("Storage operation failed for object {}: {}", objectName, e.getMessage());
+                    return BatchResult.failed(objectName, e);
+                }
+            }));
+        }
+
+        Iterator<BatchResult<T>> results = new Iterator<>() {
+            private int taken;
+
+            @Override
+            public boolean hasNext() {
+                return taken < objectNames.size();
+            }
+
+            @Override
+            public BatchResult<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                taken++;
+                try {
+                    return completion.take().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for storage results", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        };
+
+        return StreamSupport
+                .stream(Spliterators.spliterator(results, objectNames.size(),
+                        Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.SIZED), false)
+                .onClose(() -> {
+                    executor.shutdownNow();
+                    executor.close();
+                    for (Future<BatchResult<T>> future : futures) {
+                        if (future.state() == Future.State.SUCCESS && future.resultNow().isSuccess()) {
+                            discard.accept(future.resultNow().value());
+                        }
+                    }
+                });
+    }
+
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            log.debug("Failed to close object stream: {}", e.getMessage());
+        }
+    }
+
+    private static final class PermitInputStream extends FilterInputStream {
+
+        private final Semaphore permits;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PermitInputStream(InputStream in, Semaphore permits) {
+            super(in);
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Resolves where the file of a history entry currently lives: the staged
+     * object until it is finalized, then its blob when a digest is recorded,
+     * otherwise the legacy per-history path.
+     */
+    public String resolveExplanatoryObject(String stagedObject, String contentDigest, Long studentId, Long projectId,
+            Long itemId, Long historyId, String filename) {
+        if (stagedObject != null) {
+            return stagedObject;
+        }
+        if (contentDigest != null) {
+            return blobObjectName(contentDigest);
+        }
+        return explanatoryObjectName(studentId, projectId, itemId, historyId, filename);
+    }
+
+    public String blobObjectName(String contentDigest) {
+        return BLOB_PREFIX + contentDigest;
+    }
+
+    public String explanatoryObjectName(Long studentId, Long projectId, Long itemId, Long historyId,
+            String filename) {
+        return String.format("%d/%d/%d/%d/%s", studentId, projectId, itemId, historyId, filename);
+    }
 }
@@ -0,0 +1,124 @@
+package com.github.stepwise.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.exception.NotFoundException;
+import com.github.stepwise.repository.AcademicWorkRepository;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.repository.ItemHistoryRepository.ExportFile;
+import com.github.stepwise.service.StorageService.BatchResult;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SubmissionExportService {
+
+    static final String ERRORS_ENTRY = "_errors.txt";
+
+    private final AcademicWorkRepository academicWorkRepository;
+
+    private final ItemHistoryRepository itemHistoryRepository;
+
+    private final StorageService storageService;
+
+    public List<ExportFile> getExportFiles(Long academicWorkId, boolean allVersions, Long principalId,
+            UserRole principalRole) {
+        if (!academicWorkRepository.existsById(academicWorkId)) {
+            throw new NotFoundException("Academic work not found with id: " + academicWorkId);
+        }
+        if (principalRole == UserRole.TEACHER
+                && !academicWorkRepository.existsByIdAndWorkTemplateTeacherId(academicWorkId, principalId)) {
+            log.warn("Teacher {} attempted to export academic work {}", principalId, academicWorkId);
+            throw new AccessDeniedException("Teachers can only export their own academic works");
+        }
+
+        return itemHistoryRepository.findExportFiles(academicWorkId, allVersions);
+    }
+
+    public void writeZip(List<ExportFile> files, boolean allVersions, OutputStream out) throws IOException {
+        Map<String, List<ExportFile>> byObjectName = new LinkedHashMap<>();
+        for (ExportFile file : files) {
+            byObjectName.computeIfAbsent(objectName(file), name -> new ArrayList<>()).add(file);
+        }
+
+        List<String> errors = new ArrayList<>();
+
+        try (Stream<BatchResult<InputStream>> results = storageService
+                .getObjects(new ArrayList<>(byObjectName.keySet()));
+                ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (BatchResult<InputStream> result : (Iterable<BatchResult<InputStream>>) results::iterator) {
+                List<ExportFile> sharing = byObjectName.get(result.objectName());
+
+                if (!result.isSuccess()) {
+                    sharing.forEach(file -> errors.add(entryName(file, true) + ": " + result.error().getMessage()));
+                    continue;
+                }
+
+                writeEntry(zip, sharing.getFirst(), allVersions, result.value());
+
+                // Deduplicated blobs back several history entries; re-read for each extra entry.
+                for (ExportFile file : sharing.subList(1, sharing.size())) {
+                    InputStream content;
+                    try {
+                        content = storageService.downloadObject(result.objectName());
+                    } catch (Exception e) {
+                        errors.add(entryName(file, true) + ": " + e.getMessage());
+                        continue;
+                    }
+                    writeEntry(zip, file, allVersions, content);
+                }
+            }
+
+            if (!errors.isEmpty()) {
+                log.warn("Export finished with {} missing files", errors.size());
+                zip.putNextEntry(new ZipEntry(ERRORS_ENTRY));
+                zip.write(String.join("\n", errors).getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private static void writeEntry(ZipOutputStream zip, ExportFile file, boolean allVersions, InputStream content)
+            throws IOException {
+        try (InputStream in = content) {
+            zip.putNextEntry(new ZipEntry(entryName(file, allVersions)));
+            in.transferTo(zip);
+            zip.closeEntry();
+        }
+    }
+
+    private String objectName(ExportFile file) {
+        return storageService.resolveExplanatoryObject(file.getStagedObject(), file.getContentDigest(),
+                file.getStudentId(), file.getProjectId(), file.getItemId(), file.getHistoryId(), file.getFileName());
+    }
+
+    static String entryName(ExportFile file, boolean allVersions) {
+        String student = file.getLastName() != null && file.getFirstName() != null
+                ? file.getLastName() + "_" + file.getFirstName()
+                : file.getUsername();
+        String prefix = (file.getOrderNumber() + 1) + (allVersions ? "_" + file.getHistoryId() : "");
+        return sanitize(student + "_" + file.getProjectId()) + "/" + prefix + "_" + sanitize(file.getFileName());
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[\\\\/:*?\"<>|]", "_");
+    }
+
+}
@@ -0,0 +1,230 @@
+package com.github.stepwise.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.stepwise.configuration.SummaryConfig;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.exception.NotFoundException;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+
+import chat.giga.http.client.HttpClientException;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs summary generation off the request thread. Jobs live in memory: the
+ * durable result is the stored summary, so a job lost on restart is simply
+ * submitted again.
+ */
+@Service
+@Slf4j
+public class SummaryJobService {
+
+    public enum Status {
+        QUEUED, RUNNING, RETRYING, COMPLETED, FAILED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == FAILED;
+        }
+    }
+
+    @Getter
+    public static final class SummaryJob {
+
+        private final String id;
+
+        private final Long itemId;
+
+        private final ItemFile file;
+
+        private volatile Status status = Status.QUEUED;
+
+        private volatile int attempts;
+
+        private volatile String summary;
+
+        private volatile String error;
+
+        @Getter(AccessLevel.NONE)
+        private final List<Consumer<SummaryJob>> listeners = new CopyOnWriteArrayList<>();
+
+        private SummaryJob(String id, Long itemId, ItemFile file) {
+            this.id = id;
+            this.itemId = itemId;
+            this.file = file;
+        }
+
+        public Long getHistoryId() {
+            return file.historyId();
+        }
+
+        private void update(Status status) {
+            this.status = status;
+            listeners.forEach(listener -> listener.accept(this));
+        }
+
+    }
+
+    private final ItemSummaryService itemSummaryService;
+
+    private final ExplanatoryNoteItemService explanatoryNoteItemService;
+
+    private final SummaryConfig summaryConfig;
+
+    private final ThreadPoolExecutor workers;
+
+    private final ScheduledExecutorService retryScheduler;
+
+    private final Cache<String, SummaryJob> jobs;
+
+    private final ConcurrentMap<Long, SummaryJob> activeByHistory = new ConcurrentHashMap<>();
+
+    public SummaryJobService(ItemSummaryService itemSummaryService,
+            ExplanatoryNoteItemService explanatoryNoteItemService, SummaryConfig summaryConfig) {
+        this.itemSummaryService = itemSummaryService;
+        this.explanatoryNoteItemService = explanatoryNoteItemService;
+        this.summaryConfig = summaryConfig;
+        this.workers = new ThreadPoolExecutor(summaryConfig.getWorkers(), summaryConfig.getWorkers(), 0L,
+                TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(summaryConfig.getQueueCapacity()),
+                Thread.ofPlatform().name("summary-worker-", 0).factory());
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("summary-retry").daemon().factory());
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterAccess(summaryConfig.getJobTtl())
+                .build();
+    }
+
+    /**
+     * Returns a job for the summary of {@code file}: already completed when
+     * the summary is stored, the running job when one exists for the same
+     * history entry, otherwise a newly queued one.
+     */
+    public SummaryJob submit(Long itemId, ItemFile file) {
+        SummaryJob job = new SummaryJob(UUID.randomUUID().toString(), itemId, file);
+
+        Optional<String> stored = itemSummaryService.findSummary(file.historyId());
+        if (stored.isPresent()) {
+            job.summary = stored.get();
+            job.status = Status.COMPLETED;
+            jobs.put(job.id, job);
+            return job;
+        }
+
+        SummaryJob active = activeByHistory.putIfAbsent(file.historyId(), job);
+        if (active != null) {
+            log.debug("Reusing summary job {} for historyId: {}", active.id, file.historyId());
+            return active;
+        }
+
+        jobs.put(job.id, job);
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            activeByHistory.remove(file.historyId(), job);
+            jobs.invalidate(job.id);
+            throw e;
+        }
+
+        log.info("Queued summary job {} for historyId: {}", job.id, file.historyId());
+        return job;
+    }
+
+    /**
+     * Returns the job if the user may read its item. Jobs of other users'
+     * items are reported as missing, like the items themselves.
+     */
+    public SummaryJob getJob(String jobId, Long userId, UserRole role) {
+        SummaryJob job = jobs.getIfPresent(jobId);
+        if (job == null || !explanatoryNoteItemService.canReadItem(job.itemId, userId, role)) {
+            if (job != null) {
+                log.warn("User {} attempted to read summary job {} of itemId: {}", userId, jobId, job.itemId);
+            }
+            throw new NotFoundException("Summary job not found: " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Calls {@code listener} with the current state and on every change until
+     * the job finishes. The returned handle stops further notifications.
+     */
+    public Runnable subscribe(String jobId, Long userId, UserRole role, Consumer<SummaryJob> listener) {
+        SummaryJob job = getJob(jobId, userId, role);
+        job.listeners.add(listener);
+        listener.accept(job);
+        return () -> job.listeners.remove(listener);
+    }
+
+    private void run(SummaryJob job) {
+        job.attempts++;
+        job.update(Status.RUNNING);
+
+        try {
+            job.summary = itemSummaryService.getSummary(job.itemId, job.file);
+            finish(job, Status.COMPLETED);
+        } catch (RuntimeException e) {
+            if (isRetryable(e) && job.attempts < summaryConfig.getMaxAttempts()) {
+                long delay = summaryConfig.getInitialBackoff().toMillis() << (job.attempts - 1);
+                log.warn("Summary job {} failed on attempt {}, retrying in {} ms: {}", job.id, job.attempts, delay,
+                        e.getMessage());
+                job.error = e.getMessage();
+                job.update(Status.RETRYING);
+                retryScheduler.schedule(() -> retry(job), delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+
+            log.error("Summary job {} failed after {} attempts: {}", job.id, job.attempts, e.getMessage());
+            job.error = e.getMessage();
+            finish(job, Status.FAILED);
+        }
+    }
+
+    private void retry(SummaryJob job) {
+        try {
+            workers.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            job.error = "Summary queue is full";
+            finish(job, Status.FAILED);
+        }
+    }
+
+    private void finish(SummaryJob job, Status status) {
+        activeByHistory.remove(job.getHistoryId(), job);
+        job.update(status);
+        job.listeners.clear();
+    }
+
+    private static boolean isRetryable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpClientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+}
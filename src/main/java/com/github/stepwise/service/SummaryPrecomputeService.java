@@ -0,0 +1,110 @@
+package com.github.stepwise.service;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.stepwise.configuration.SummaryConfig;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.event.ItemSubmittedEvent;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+import com.github.stepwise.service.SummaryJobService.Status;
+import com.github.stepwise.service.SummaryJobService.SummaryJob;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts the summary of a submitted item before a teacher asks for it. This
+ * is best effort: when the cap is reached or today's GigaChat calls have used
+ * up the daily budget the item is skipped and summarized on demand instead.
+ * The budget is checked before a job starts, so a job that starts under it
+ * still makes all of its chunk and reduce calls.
+ */
+@Service
+@Slf4j
+public class SummaryPrecomputeService {
+
+    private final ExplanatoryNoteItemService explanatoryNoteItemService;
+
+    private final SummaryJobService summaryJobService;
+
+    private final GigaChatService gigaChatService;
+
+    private final SummaryConfig.Precompute config;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Semaphore permits;
+
+    public SummaryPrecomputeService(ExplanatoryNoteItemService explanatoryNoteItemService,
+            SummaryJobService summaryJobService, GigaChatService gigaChatService, SummaryConfig summaryConfig,
+            MeterRegistry meterRegistry) {
+        this.explanatoryNoteItemService = explanatoryNoteItemService;
+        this.summaryJobService = summaryJobService;
+        this.gigaChatService = gigaChatService;
+        this.config = summaryConfig.getPrecompute();
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(config.getMaxConcurrent());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemSubmitted(ItemSubmittedEvent event) {
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        if (!permits.tryAcquire()) {
+            log.debug("Skipping summary precompute for itemId: {}, concurrency cap reached", event.itemId());
+            count("skipped_busy");
+            return;
+        }
+
+        if (gigaChatService.getCallsToday() >= config.getDailyBudget()) {
+            permits.release();
+            log.info("Skipping summary precompute for itemId: {}, daily budget of {} GigaChat calls exhausted",
+                    event.itemId(), config.getDailyBudget());
+            count("skipped_budget");
+            return;
+        }
+
+        try {
+            ItemFile file = explanatoryNoteItemService.getItemFileMetadata(event.studentId(), UserRole.STUDENT,
+                    event.projectId(), event.itemId(), null);
+            SummaryJob job = summaryJobService.submit(event.itemId(), file);
+
+            if (job.getStatus() == Status.COMPLETED) {
+                permits.release();
+                count("already_stored");
+                return;
+            }
+
+            AtomicBoolean released = new AtomicBoolean();
+            summaryJobService.subscribe(job.getId(), event.studentId(), UserRole.STUDENT, update -> {
+                if (update.getStatus().isTerminal() && released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            });
+            log.info("Precomputing summary for itemId: {}, historyId: {} in job {}", event.itemId(),
+                    file.historyId(), job.getId());
+            count("queued");
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            log.info("Skipping summary precompute for itemId: {}, summary queue is full", event.itemId());
+            count("skipped_busy");
+        } catch (Exception e) {
+            permits.release();
+            log.warn("Failed to start summary precompute for itemId: {}: {}", event.itemId(), e.getMessage());
+            count("failed");
+        }
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("summary.precompute", "outcome", outcome).increment();
+    }
+
+}
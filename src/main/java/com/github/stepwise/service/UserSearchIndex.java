@@ -0,0 +1,59 @@
+package com.github.stepwise.service;
+
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.github.stepwise.configuration.UserSearchConfig;
+import com.github.stepwise.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the pg_trgm extension and the trigram indexes behind the ranked
+ * user search once the schema is in place. If that fails, for example when
+ * the database user may not create extensions, user search falls back to the
+ * plain LIKE query.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class UserSearchIndex {
+
+    private static final List<String> STATEMENTS = List.of(
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_usr_username_trgm ON usr USING gin ("
+                    + UserRepository.USERNAME_EXPRESSION + " gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_profile_full_name_trgm ON profile USING gin ("
+                    + UserRepository.FULL_NAME_EXPRESSION + " gin_trgm_ops)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final UserSearchConfig userSearchConfig;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        if (userSearchConfig.getMode() != UserSearchConfig.Mode.TRIGRAM) {
+            return;
+        }
+
+        try {
+            STATEMENTS.forEach(jdbcTemplate::execute);
+            ready = true;
+            log.info("Trigram user search indexes are in place");
+        } catch (Exception e) {
+            log.warn("Trigram user search is unavailable, falling back to LIKE: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+}
@@ -14,6 +14,7 @@ import com.github.stepwise.entity.UserRole;
 import com.github.stepwise.exception.NotFoundException;
 import com.github.stepwise.repository.StudyGroupRepository;
 import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.security.PrincipalCache;
 import com.github.stepwise.web.dto.ProfileDto;
 
 import lombok.RequiredArgsConstructor;
@@ -28,6 +29,10 @@ public class UserService {
 
     private final StudyGroupRepository studyGroupRepository;
 
+    private final PrincipalCache principalCache;
+
+    private final UserSearchIndex userSearchIndex;
+
     public User findById(Long id) {
         log.info("Fetching user by id: {}", id);
         return userRepository.findById(id)
@@ -37,17 +42,23 @@ public class UserService {
     public Page<User> getStudents(String search, Pageable pageable) {
         log.info("Fetching students, search={}, pageable={}", search, pageable);
         return StringUtils.hasText(search)
-                ? userRepository.findByUsernameOrFirstNameOrLastName(search, UserRole.STUDENT, pageable)
+                ? search(search.strip(), UserRole.STUDENT, pageable)
                 : userRepository.findByRole(UserRole.STUDENT, pageable);
     }
 
     public Page<User> getTeachers(String search, Pageable pageable) {
         log.info("Fetching teachers, search={}, pageable={}", search, pageable);
         return StringUtils.hasText(search)
-                ? userRepository.findByUsernameOrFirstNameOrLastName(search, UserRole.TEACHER, pageable)
+                ? search(search.strip(), UserRole.TEACHER, pageable)
                 : userRepository.findByRole(UserRole.TEACHER, pageable);
     }
 
+    private Page<User> search(String search, UserRole role, Pageable pageable) {
+        return userSearchIndex.isReady()
+                ? userRepository.searchByTrigram(search, role.name(), pageable)
+                : userRepository.findByUsernameOrFirstNameOrLastName(search, role, pageable);
+    }
+
     public List<User> getStudentsByGroupId(Long groupId) {
         log.info("Fetching students by groupId: {}", groupId);
         assertGroupExists(groupId);
@@ -73,7 +84,9 @@ public class UserService {
         applyIfPresent(dto.getPhoneNumber(), profile::setPhoneNumber);
         applyIfPresent(dto.getAddress(), profile::setAddress);
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.evictAfterCommit(saved.getUsername());
+        return saved;
     }
 
     public Long resolveProfileTargetId(ProfileDto dto, Long requesterId, UserRole requesterRole) {
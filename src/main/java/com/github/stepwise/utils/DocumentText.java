@@ -0,0 +1,85 @@
+package com.github.stepwise.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.xwpf.usermodel.IBodyElement;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+
+/**
+ * Plain text of an uploaded document, detected by its leading bytes so the
+ * stored file name does not matter. Only the first {@code maxChars} are kept.
+ */
+public final class DocumentText {
+
+    private static final byte[] PDF_SIGNATURE = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] ZIP_SIGNATURE = { 'P', 'K', 3, 4 };
+
+    private DocumentText() {
+    }
+
+    public static String extract(Path file, int maxChars) throws IOException {
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(PDF_SIGNATURE.length);
+        }
+
+        if (startsWith(head, PDF_SIGNATURE)) {
+            return PdfText.extract(file, maxChars);
+        }
+        if (startsWith(head, ZIP_SIGNATURE)) {
+            return extractDocx(file, maxChars);
+        }
+        throw new IllegalArgumentException("Unsupported document format");
+    }
+
+    private static String extractDocx(Path file, int maxChars) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Invalid DOCX package", e);
+        }
+
+        XWPFDocument document;
+        try {
+            document = new XWPFDocument(pkg);
+        } catch (IOException | RuntimeException e) {
+            pkg.revert();
+            throw e;
+        }
+
+        try (document) {
+            StringBuilder text = new StringBuilder();
+            for (IBodyElement element : document.getBodyElements()) {
+                if (text.length() >= maxChars) {
+                    break;
+                }
+                if (element instanceof XWPFParagraph paragraph) {
+                    text.append(paragraph.getText()).append('\n');
+                } else if (element instanceof XWPFTable table) {
+                    text.append(table.getText()).append('\n');
+                }
+            }
+
+            String result = text.toString().trim();
+            return result.length() > maxChars ? result.substring(0, maxChars) : result;
+        }
+    }
+
+    private static boolean startsWith(byte[] head, byte[] signature) {
+        return head.length >= signature.length
+                && Arrays.equals(head, 0, signature.length, signature, 0, signature.length);
+    }
+
+}
@@ -8,55 +8,75 @@ import javax.crypto.SecretKey;
 import org.springframework.stereotype.Component;
 
 import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.utils.JwtValidationResult.Failure;
 
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 @Component
+@Slf4j
 @RequiredArgsConstructor
 public class JwtUtil {
 
+    public static final String USER_ID_CLAIM = "uid";
+
+    public static final String ROLE_CLAIM = "role";
+
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
     private final JwtConfigurationProperties jwtConfig;
 
     private SecretKey key;
 
+    private JwtParser parser;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
-    public String generateToken(String username) {
-        return Jwts.builder().setSubject(username).setIssuedAt(new Date())
+    public String generateToken(User user) {
+        return Jwts.builder().setSubject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
+                .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtConfig.getExpiration()))
                 .signWith(key, SignatureAlgorithm.HS256).compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody()
-                .getSubject();
-    }
-
-    public boolean validateJwtToken(String token) {
+    public JwtValidationResult validate(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
+            return JwtValidationResult.valid(parser.parseClaimsJws(token).getBody());
+        } catch (ExpiredJwtException e) {
+            return reject(Failure.EXPIRED, e);
         } catch (SecurityException e) {
-            IO.println("Invalid JWT signature: " + e.getMessage());
+            return reject(Failure.INVALID_SIGNATURE, e);
         } catch (MalformedJwtException e) {
-            IO.println("Invalid JWT token: " + e.getMessage());
-        } catch (ExpiredJwtException e) {
-            IO.println("JWT token is expired: " + e.getMessage());
+            return reject(Failure.MALFORMED, e);
         } catch (UnsupportedJwtException e) {
-            IO.println("JWT token is unsupported: " + e.getMessage());
+            return reject(Failure.UNSUPPORTED, e);
+        } catch (JwtException e) {
+            return reject(Failure.INVALID, e);
         } catch (IllegalArgumentException e) {
-            IO.println("JWT claims string is empty: " + e.getMessage());
+            return reject(Failure.EMPTY, e);
         }
-        return false;
+    }
+
+    private JwtValidationResult reject(Failure failure, Exception e) {
+        log.debug("JWT rejected ({}): {}", failure, e.getMessage());
+        return JwtValidationResult.failed(failure);
     }
 }
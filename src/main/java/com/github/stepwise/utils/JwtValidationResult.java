@@ -0,0 +1,23 @@
+package com.github.stepwise.utils;
+
+import io.jsonwebtoken.Claims;
+
+public record JwtValidationResult(Claims claims, Failure failure) {
+
+    public enum Failure {
+        EMPTY, MALFORMED, INVALID_SIGNATURE, EXPIRED, UNSUPPORTED, INVALID
+    }
+
+    public static JwtValidationResult valid(Claims claims) {
+        return new JwtValidationResult(claims, null);
+    }
+
+    public static JwtValidationResult failed(Failure failure) {
+        return new JwtValidationResult(null, failure);
+    }
+
+    public boolean isValid() {
+        return failure == null;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.github.stepwise.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+/**
+ * Passes bytes through and fails with {@link MaxUploadSizeExceededException}
+ * as soon as more than {@code maxSize} bytes have been read.
+ */
+public class LimitedInputStream extends FilterInputStream {
+
+    private final long maxSize;
+
+    private long count;
+
+    public LimitedInputStream(InputStream in, long maxSize) {
+        super(in);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private void count(long n) {
+        count += n;
+        if (count > maxSize) {
+            throw new MaxUploadSizeExceededException(maxSize);
+        }
+    }
+
+}
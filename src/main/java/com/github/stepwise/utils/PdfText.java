@@ -0,0 +1,39 @@
+package com.github.stepwise.utils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+/**
+ * Extracts the leading text of a PDF without holding the document in heap:
+ * the file is read through PDFBox's buffered file access, parsed streams are
+ * cached in temp files, and pages are stripped one at a time until
+ * {@code maxChars} are collected.
+ */
+public final class PdfText {
+
+    private PdfText() {
+    }
+
+    public static String extract(Path pdf, int maxChars) throws IOException {
+        try (PDDocument document = Loader.loadPDF(pdf.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            StringBuilder text = new StringBuilder();
+
+            int pages = document.getNumberOfPages();
+            for (int page = 1; page <= pages && text.length() < maxChars; page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                text.append(stripper.getText(document));
+            }
+
+            String result = text.toString().trim();
+            return result.length() > maxChars ? result.substring(0, maxChars) : result;
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.github.stepwise.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits text into chunks of at most {@code maxChars} on line boundaries.
+ * Past half of the limit a chunk also ends after any line whose hash hits the
+ * boundary mask, so boundaries depend on content rather than offsets: an edit
+ * only changes the chunks around it and the rest still match earlier ones.
+ */
+public final class TextChunks {
+
+    private static final int BOUNDARY_MASK = 0x3;
+
+    private TextChunks() {
+    }
+
+    public static List<String> split(String text, int maxChars) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder chunk = new StringBuilder();
+
+        for (String line : text.split("\n")) {
+            String stripped = line.strip();
+            for (int start = 0; start < stripped.length(); start += maxChars) {
+                String piece = stripped.substring(start, Math.min(stripped.length(), start + maxChars));
+
+                if (!chunk.isEmpty() && chunk.length() + 1 + piece.length() > maxChars) {
+                    chunks.add(chunk.toString());
+                    chunk.setLength(0);
+                }
+                if (!chunk.isEmpty()) {
+                    chunk.append('\n');
+                }
+                chunk.append(piece);
+
+                if (chunk.length() >= maxChars / 2 && (piece.hashCode() & BOUNDARY_MASK) == 0) {
+                    chunks.add(chunk.toString());
+                    chunk.setLength(0);
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk.toString());
+        }
+        return chunks;
+    }
+
+}
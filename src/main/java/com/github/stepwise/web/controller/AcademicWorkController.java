@@ -2,7 +2,9 @@ package com.github.stepwise.web.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -13,11 +15,15 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.github.stepwise.entity.AcademicWork;
+import com.github.stepwise.repository.ItemHistoryRepository.ExportFile;
 import com.github.stepwise.security.AppUserDetails;
 import com.github.stepwise.service.AcademicWorkService;
+import com.github.stepwise.service.SubmissionExportService;
 import com.github.stepwise.web.dto.CreateWorkDto;
+import com.github.stepwise.web.dto.WorkDashboardDto;
 import com.github.stepwise.web.dto.WorkResponseDto;
 
 import jakarta.validation.Valid;
@@ -30,6 +36,8 @@ public class AcademicWorkController {
 
     private final AcademicWorkService academicWorkService;
 
+    private final SubmissionExportService submissionExportService;
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_TEACHER')")
     public ResponseEntity<Void> createWork(@Valid @RequestBody CreateWorkDto workDto) {
@@ -50,6 +58,12 @@ public class AcademicWorkController {
         return toDtoList(academicWorkService.getByTeacherAndGroupId(teacherId, groupId));
     }
 
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasRole('ROLE_TEACHER')")
+    public List<WorkDashboardDto> getTeacherDashboard(@AuthenticationPrincipal AppUserDetails principal) {
+        return academicWorkService.getTeacherDashboard(principal.getId());
+    }
+
     @GetMapping("/student")
     @PreAuthorize("hasAnyRole('ROLE_STUDENT', 'ROLE_ADMIN', 'ROLE_TEACHER')")
     public List<WorkResponseDto> getStudentWorks(
@@ -66,6 +80,20 @@ public class AcademicWorkController {
         return WorkResponseDto.fromEntityWithChapters(work);
     }
 
+    @GetMapping("/{workId}/export")
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_TEACHER')")
+    public ResponseEntity<StreamingResponseBody> exportWorkFiles(@PathVariable Long workId,
+            @RequestParam(defaultValue = "false") boolean allVersions,
+            @AuthenticationPrincipal AppUserDetails principal) {
+        List<ExportFile> files = submissionExportService.getExportFiles(workId, allVersions, principal.getId(),
+                principal.getRole());
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=work-" + workId + ".zip")
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .body(out -> submissionExportService.writeZip(files, allVersions, out));
+    }
+
     private List<WorkResponseDto> toDtoList(List<AcademicWork> works) {
         return works.stream().map(WorkResponseDto::fromEntity).toList();
     }
@@ -14,6 +14,7 @@ import com.github.stepwise.entity.User;
 import com.github.stepwise.service.AuthService;
 import com.github.stepwise.service.PasswordResetService;
 import com.github.stepwise.web.dto.MessageResponse;
+import com.github.stepwise.web.dto.RefreshTokenDto;
 import com.github.stepwise.web.dto.ResetPasswordDto;
 import com.github.stepwise.web.dto.SignInDto;
 import com.github.stepwise.web.dto.SignInResponseDto;
@@ -37,6 +38,11 @@ public class AuthController {
         return authService.authenticate(signInDto);
     }
 
+    @PostMapping("/tokens")
+    public SignInResponseDto refreshSession(@Valid @RequestBody RefreshTokenDto refreshTokenDto) {
+        return authService.refresh(refreshTokenDto.getRefreshToken());
+    }
+
     @PostMapping("/users")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     public ResponseEntity<UserResponseDto> registerUser(@Valid @RequestBody SignUpDto userDto) {
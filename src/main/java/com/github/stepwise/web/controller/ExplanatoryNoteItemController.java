@@ -1,12 +1,23 @@
 package com.github.stepwise.web.controller;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -15,18 +26,28 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.github.stepwise.security.AppUserDetails;
 import com.github.stepwise.service.ExplanatoryNoteItemService;
-import com.github.stepwise.service.GigaChatService;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+import com.github.stepwise.service.SummaryJobService;
+import com.github.stepwise.service.SummaryJobService.SummaryJob;
+import com.github.stepwise.service.ObjectFileCache.CachedFile;
+import com.github.stepwise.web.dto.SummaryJobDto;
 import com.github.stepwise.web.dto.TeacherCommentDto;
 
+import io.minio.StatObjectResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -35,9 +56,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ExplanatoryNoteItemController {
 
+    private static final Duration SUMMARY_EVENTS_TIMEOUT = Duration.ofMinutes(5);
+
     private final ExplanatoryNoteItemService explanatoryNoteItemService;
 
-    private final GigaChatService gigaChatService;
+    private final SummaryJobService summaryJobService;
 
     @PostMapping(path = "/draft", consumes = "multipart/form-data")
     @PreAuthorize("hasRole('ROLE_STUDENT')")
@@ -48,6 +71,20 @@ public class ExplanatoryNoteItemController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @PutMapping(path = "/draft/stream")
+    @PreAuthorize("hasRole('ROLE_STUDENT')")
+    public ResponseEntity<Void> streamExplanatoryNoteItem(@RequestParam Long projectId,
+            @RequestParam String fileName,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream body,
+            @AuthenticationPrincipal AppUserDetails principal) throws Exception {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        explanatoryNoteItemService.draftItem(principal.getId(), projectId, fileName,
+                mediaType.getType() + "/" + mediaType.getSubtype(), contentLength, body);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
     @PostMapping("/{id}/submition")
     @PreAuthorize("hasRole('ROLE_STUDENT')")
     public ResponseEntity<Void> submitExplanatoryNoteItem(@PathVariable Long id,
@@ -76,40 +113,224 @@ public class ExplanatoryNoteItemController {
 
     @GetMapping("/file")
     @PreAuthorize("hasAnyRole('ROLE_STUDENT', 'ROLE_ADMIN', 'ROLE_TEACHER')")
-    public ResponseEntity<InputStreamResource> downloadItemFile(
+    public ResponseEntity<StreamingResponseBody> downloadItemFile(
+            @AuthenticationPrincipal AppUserDetails principal,
+            @RequestParam(required = false) Long userId,
+            @RequestParam Long projectId,
+            @RequestParam Long itemId,
+            @RequestParam(required = false) Long historyId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            WebRequest webRequest) throws Exception {
+        Long targetUserId = explanatoryNoteItemService.resolveAccessibleUserId(userId, principal.getId(),
+                principal.getRole());
+
+        ItemFile file = explanatoryNoteItemService.getItemFileMetadata(targetUserId, principal.getRole(),
+                projectId, itemId, historyId);
+        String etag = "\"h-" + file.historyId() + "\"";
+
+        if (webRequest.checkNotModified(etag, file.lastModified().toEpochMilli())) {
+            return null;
+        }
+
+        Optional<CachedFile> cached = explanatoryNoteItemService.openCachedItemFile(file);
+        long size;
+        String contentType;
+        if (cached.isPresent()) {
+            size = cached.get().size();
+            contentType = cached.get().contentType();
+        } else {
+            StatObjectResponse stat = explanatoryNoteItemService.statItemFile(file);
+            size = stat.size();
+            contentType = stat.contentType();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename*=UTF-8''"
+                + URLEncoder.encode(file.fileName(), StandardCharsets.UTF_8).replace("+", "%20"));
+        headers.set(HttpHeaders.CONTENT_TYPE,
+                contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setETag(etag);
+        headers.setLastModified(file.lastModified());
+        // Only a history entry's file is fixed; the latest-file URL changes with every new draft.
+        headers.setCacheControl(historyId != null
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable()
+                : CacheControl.noCache().cachePrivate());
+
+        HttpRange httpRange = range != null && isIfRangeSatisfied(ifRange, etag, file.lastModified())
+                ? parseSingleRange(range)
+                : null;
+
+        if (httpRange == null) {
+            headers.setContentLength(size);
+            return ResponseEntity.ok().headers(headers).body(cached.isPresent()
+                    ? transferOf(cached.get(), 0, size)
+                    : streamOf(explanatoryNoteItemService.openItemFile(file, 0, null)));
+        }
+
+        long start;
+        long end;
+        try {
+            start = httpRange.getRangeStart(size);
+            end = httpRange.getRangeEnd(size);
+        } catch (IllegalArgumentException e) {
+            cached.ifPresent(CachedFile::close);
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
+
+        long length = end - start + 1;
+        headers.setContentLength(length);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).body(cached.isPresent()
+                ? transferOf(cached.get(), start, length)
+                : streamOf(explanatoryNoteItemService.openItemFile(file, start, length)));
+    }
+
+    @GetMapping("/file/url")
+    @PreAuthorize("hasAnyRole('ROLE_STUDENT', 'ROLE_ADMIN', 'ROLE_TEACHER')")
+    public ResponseEntity<Map<String, String>> getItemFileUrl(
             @AuthenticationPrincipal AppUserDetails principal,
             @RequestParam(required = false) Long userId,
             @RequestParam Long projectId,
             @RequestParam Long itemId,
-            @RequestParam(required = false) Long historyId) throws Exception {
+            @RequestParam(required = false) Long historyId,
+            @RequestParam(defaultValue = "false") boolean redirect) throws Exception {
         Long targetUserId = explanatoryNoteItemService.resolveAccessibleUserId(userId, principal.getId(),
                 principal.getRole());
 
-        InputStream inputStream = explanatoryNoteItemService.getItemFile(targetUserId, projectId, itemId, historyId);
-        String fileName = explanatoryNoteItemService.getItemFileName(itemId, historyId);
+        String url = explanatoryNoteItemService.getItemFileUrl(targetUserId, principal.getRole(), projectId,
+                itemId, historyId);
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename*=UTF-8''"
-                                + URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20"))
-                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE)
-                .body(new InputStreamResource(inputStream));
+        if (redirect) {
+            return ResponseEntity.status(HttpStatus.FOUND).location(URI.create(url)).build();
+        }
+        return ResponseEntity.ok(Map.of("url", url));
     }
 
     @GetMapping("/summary")
     @PreAuthorize("hasAnyRole('ROLE_TEACHER', 'ROLE_ADMIN')")
-    public ResponseEntity<Map<String, String>> getItemSummary(
+    public ResponseEntity<?> getItemSummary(
             @AuthenticationPrincipal AppUserDetails principal,
             @RequestParam Long studentId,
             @RequestParam Long projectId,
             @RequestParam Long itemId,
             @RequestParam Long historyId) {
+        SummaryJob job = submitSummaryJob(principal, studentId, projectId, itemId, historyId);
+
+        if (job.getStatus() == SummaryJobService.Status.COMPLETED) {
+            return ResponseEntity.ok(Map.of("summary", job.getSummary()));
+        }
+        return ResponseEntity.accepted().body(toSummaryJobDto(job));
+    }
+
+    @PostMapping("/summary/jobs")
+    @PreAuthorize("hasAnyRole('ROLE_TEACHER', 'ROLE_ADMIN')")
+    public ResponseEntity<SummaryJobDto> createSummaryJob(
+            @AuthenticationPrincipal AppUserDetails principal,
+            @RequestParam Long studentId,
+            @RequestParam Long projectId,
+            @RequestParam Long itemId,
+            @RequestParam Long historyId) {
+        SummaryJob job = submitSummaryJob(principal, studentId, projectId, itemId, historyId);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/explanatory-note-item/summary/jobs/" + job.getId()))
+                .body(toSummaryJobDto(job));
+    }
+
+    @GetMapping("/summary/jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('ROLE_TEACHER', 'ROLE_ADMIN')")
+    public ResponseEntity<SummaryJobDto> getSummaryJob(@PathVariable String jobId,
+            @AuthenticationPrincipal AppUserDetails principal) {
+        return ResponseEntity.ok(toSummaryJobDto(summaryJobService.getJob(jobId, principal.getId(),
+                principal.getRole())));
+    }
+
+    @GetMapping(path = "/summary/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ROLE_TEACHER', 'ROLE_ADMIN')")
+    public SseEmitter streamSummaryJob(@PathVariable String jobId,
+            @AuthenticationPrincipal AppUserDetails principal) {
+        SseEmitter emitter = new SseEmitter(SUMMARY_EVENTS_TIMEOUT.toMillis());
+
+        Runnable unsubscribe = summaryJobService.subscribe(jobId, principal.getId(), principal.getRole(), job -> {
+            try {
+                emitter.send(SseEmitter.event().name("status").data(toSummaryJobDto(job)));
+                if (job.getStatus().isTerminal()) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        return emitter;
+    }
+
+    private SummaryJob submitSummaryJob(AppUserDetails principal, Long studentId, Long projectId, Long itemId,
+            Long historyId) {
         explanatoryNoteItemService.resolveAccessibleUserId(studentId, principal.getId(), principal.getRole());
 
-        String fileName = explanatoryNoteItemService.getItemFileName(itemId, historyId);
-        String summary = gigaChatService.summarizeReport(studentId, projectId, itemId, historyId, fileName);
+        ItemFile file = explanatoryNoteItemService.getItemFileMetadata(studentId, principal.getRole(), projectId,
+                itemId, historyId);
+        return summaryJobService.submit(itemId, file);
+    }
+
+    private static SummaryJobDto toSummaryJobDto(SummaryJob job) {
+        return SummaryJobDto.builder()
+                .jobId(job.getId())
+                .historyId(job.getHistoryId())
+                .status(job.getStatus().name())
+                .attempts(job.getAttempts())
+                .summary(job.getSummary())
+                .error(job.getError())
+                .build();
+    }
+
+    private static StreamingResponseBody streamOf(InputStream inputStream) {
+        return outputStream -> {
+            try (inputStream) {
+                inputStream.transferTo(outputStream);
+            }
+        };
+    }
+
+    private static StreamingResponseBody transferOf(CachedFile cached, long offset, long length) {
+        return outputStream -> {
+            try (cached) {
+                cached.transferTo(offset, length, outputStream);
+            }
+        };
+    }
+
+    private static HttpRange parseSingleRange(String range) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.getFirst() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-        return ResponseEntity.ok(Map.of("summary", summary));
+    private static boolean isIfRangeSatisfied(String ifRange, String etag, Instant lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond() == lastModified
+                    .getEpochSecond();
+        } catch (DateTimeParseException e) {
+            return false;
+        }
     }
 
 }
@@ -15,8 +15,10 @@ import org.springframework.web.bind.annotation.RestController;
 import com.github.stepwise.entity.Project;
 import com.github.stepwise.entity.UserRole;
 import com.github.stepwise.security.AppUserDetails;
+import com.github.stepwise.service.ProjectProgressService;
 import com.github.stepwise.service.ProjectService;
 import com.github.stepwise.web.dto.DefenseDto.DefendProjectDto;
+import com.github.stepwise.web.dto.ProjectProgressDto;
 import com.github.stepwise.web.dto.ProjectResponseDto;
 import com.github.stepwise.web.dto.UpdateProjectDto;
 
@@ -30,6 +32,8 @@ public class ProjectController {
 
     private final ProjectService projectService;
 
+    private final ProjectProgressService projectProgressService;
+
     @PutMapping
     @PreAuthorize("hasAnyRole('ROLE_STUDENT', 'ROLE_ADMIN', 'ROLE_TEACHER')")
     public UpdateProjectDto updateProject(@Valid @RequestBody UpdateProjectDto projectDto) {
@@ -65,9 +69,13 @@ public class ProjectController {
     @GetMapping("/work/{workId}/teacher")
     @PreAuthorize("hasRole('ROLE_TEACHER')")
     public List<ProjectResponseDto> getProjectsByWorkForTeacher(@PathVariable Long workId) {
-        return projectService.getAllByWorkId(workId).stream()
-                .map(project -> ProjectResponseDto.fromEntity(project, true))
-                .toList();
+        return projectService.getOverviewByWorkId(workId);
+    }
+
+    @GetMapping("/work/{workId}/progress")
+    @PreAuthorize("hasAnyRole('ROLE_TEACHER', 'ROLE_ADMIN')")
+    public List<ProjectProgressDto> getProgressByWork(@PathVariable Long workId) {
+        return projectProgressService.getByWorkId(workId);
     }
 
     @PostMapping("/{projectId}/approval")
@@ -26,6 +26,8 @@ public class ExplanatoryNoteItemResponseDto {
 
     private List<HistoryItemDto> history;
 
+    private String latestFileName;
+
     public static ExplanatoryNoteItemResponseDto fromEntity(ExplanatoryNoteItem item) {
         return ExplanatoryNoteItemResponseDto.builder()
                 .id(item.getId())
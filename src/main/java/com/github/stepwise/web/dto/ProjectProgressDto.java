@@ -0,0 +1,44 @@
+package com.github.stepwise.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.repository.ProjectProgressRepository.ProgressRow;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProjectProgressDto {
+
+    private Long projectId;
+
+    private Integer totalChapters;
+
+    private Integer itemCount;
+
+    private Integer submittedCount;
+
+    private Integer approvedCount;
+
+    private Integer rejectedCount;
+
+    private ItemStatus latestItemStatus;
+
+    public static ProjectProgressDto fromRow(ProgressRow row) {
+        return ProjectProgressDto.builder()
+                .projectId(row.getProjectId())
+                .totalChapters(row.getTotalChapters())
+                .itemCount(row.getItemCount())
+                .submittedCount(row.getSubmittedCount())
+                .approvedCount(row.getApprovedCount())
+                .rejectedCount(row.getRejectedCount())
+                .latestItemStatus(row.getLatestItemStatus())
+                .build();
+    }
+}
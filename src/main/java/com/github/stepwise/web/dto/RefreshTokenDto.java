@@ -0,0 +1,16 @@
+package com.github.stepwise.web.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenDto {
+
+    @NotBlank(message = "refreshToken is required")
+    private String refreshToken;
+
+}
@@ -15,4 +15,6 @@ public class SignInResponseDto {
 
     private boolean temporaryPassword;
 
+    private String refreshToken;
+
 }
@@ -0,0 +1,26 @@
+package com.github.stepwise.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Data
+public class SummaryJobDto {
+
+    private String jobId;
+
+    private Long historyId;
+
+    private String status;
+
+    private int attempts;
+
+    private String summary;
+
+    private String error;
+
+}
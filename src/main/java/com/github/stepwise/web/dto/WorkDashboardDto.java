@@ -0,0 +1,36 @@
+package com.github.stepwise.web.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.entity.ProjectStatus;
+import com.github.stepwise.entity.ProjectType;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WorkDashboardDto {
+
+    private Long workId;
+
+    private String title;
+
+    private ProjectType type;
+
+    private String groupName;
+
+    private Map<ProjectStatus, Long> projectsByStatus;
+
+    private Map<ItemStatus, Long> itemsByStatus;
+
+    private Long awaitingReview;
+
+}
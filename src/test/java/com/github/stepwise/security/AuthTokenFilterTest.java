@@ -0,0 +1,118 @@
+package com.github.stepwise.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.utils.JwtUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AuthTokenFilterTest {
+
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    private JwtConfigurationProperties jwtConfig;
+
+    private JwtUtil jwtUtil;
+
+    private AuthTokenFilter filter;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfigurationProperties();
+        jwtConfig.setSecret("test-secret-key-that-is-at-least-32-characters-long");
+        jwtConfig.setExpiration(60_000);
+
+        jwtUtil = new JwtUtil(jwtConfig);
+        jwtUtil.init();
+
+        filter = new AuthTokenFilter(jwtUtil, principalCache, tokenVersionCache,
+                new VerifiedTokenCache(jwtConfig, new SimpleMeterRegistry()), jwtConfig);
+
+        user = User.builder().id(7L).username("student").role(UserRole.STUDENT).tokenVersion(2).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessMode_ShouldBuildPrincipalFromClaims() throws Exception {
+        jwtConfig.setStateless(true);
+        when(tokenVersionCache.isCurrent(7L, 2)).thenReturn(true);
+
+        filter.doFilter(requestWithToken(jwtUtil.generateToken(user)), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        AppUserDetails principal = (AppUserDetails) authentication.getPrincipal();
+        assertEquals(7L, principal.getId());
+        assertEquals("student", principal.getUsername());
+        assertEquals(UserRole.STUDENT, principal.getRole());
+        verifyNoInteractions(principalCache);
+    }
+
+    @Test
+    void statefulMode_ShouldResolvePrincipalFromCache() throws Exception {
+        when(tokenVersionCache.isCurrent(7L, 2)).thenReturn(true);
+        when(principalCache.getByUsername("student")).thenReturn(new AppUserDetails(user));
+
+        filter.doFilter(requestWithToken(jwtUtil.generateToken(user)), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(principalCache).getByUsername("student");
+    }
+
+    @Test
+    void revokedTokenVersion_ShouldLeaveRequestUnauthenticated() throws Exception {
+        jwtConfig.setStateless(true);
+        when(tokenVersionCache.isCurrent(7L, 2)).thenReturn(false);
+
+        filter.doFilter(requestWithToken(jwtUtil.generateToken(user)), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(principalCache, never()).getByUsername(anyString());
+    }
+
+    @Test
+    void invalidToken_ShouldLeaveRequestUnauthenticated() throws Exception {
+        filter.doFilter(requestWithToken("not-a-jwt"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(principalCache, tokenVersionCache);
+    }
+
+    private MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.github.stepwise.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.entity.UserRole;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        principalCache = new PrincipalCache(userDetailsService, new JwtConfigurationProperties(), meterRegistry);
+    }
+
+    @Test
+    void getByUsername_ShouldLoadOnceAndServeFromCache() {
+        User user = User.builder().id(1L).username("student").password("hash").role(UserRole.STUDENT).build();
+        when(userDetailsService.loadUserByUsername("student")).thenReturn(new AppUserDetails(user));
+
+        AppUserDetails first = principalCache.getByUsername("student");
+        AppUserDetails second = principalCache.getByUsername("student");
+
+        assertSame(first, second);
+        assertEquals(1L, first.getId());
+        assertEquals(UserRole.STUDENT, first.getRole());
+        assertNull(first.getPassword());
+        verify(userDetailsService, times(1)).loadUserByUsername("student");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void evict_ShouldForceReload() {
+        User user = User.builder().id(1L).username("student").password("hash").role(UserRole.STUDENT).build();
+        when(userDetailsService.loadUserByUsername("student")).thenReturn(new AppUserDetails(user));
+
+        principalCache.getByUsername("student");
+        principalCache.evict("student");
+        principalCache.getByUsername("student");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("student");
+    }
+
+    @Test
+    void evictAfterCommit_WithoutTransaction_ShouldEvictImmediately() {
+        User user = User.builder().id(1L).username("student").password("hash").role(UserRole.STUDENT).build();
+        when(userDetailsService.loadUserByUsername("student")).thenReturn(new AppUserDetails(user));
+
+        principalCache.getByUsername("student");
+        principalCache.evictAfterCommit("student");
+        principalCache.getByUsername("student");
+
+        verify(userDetailsService, times(2)).loadUserByUsername("student");
+    }
+
+    @Test
+    void getByUsername_WhenUserMissing_ShouldNotCacheFailure() {
+        when(userDetailsService.loadUserByUsername("ghost"))
+                .thenThrow(new UsernameNotFoundException("User Not Found with username: ghost"));
+
+        assertThrows(UsernameNotFoundException.class, () -> principalCache.getByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> principalCache.getByUsername("ghost"));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("ghost");
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.github.stepwise.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.utils.JwtUtil;
+import com.github.stepwise.utils.JwtValidationResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class VerifiedTokenCacheTest {
+
+    private JwtConfigurationProperties jwtConfig;
+
+    private JwtUtil jwtUtil;
+
+    private AtomicInteger verifications;
+
+    private Function<String, JwtValidationResult> countingVerifier;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfigurationProperties();
+        jwtConfig.setSecret("test-secret-key-that-is-at-least-32-characters-long");
+        jwtConfig.setExpiration(60_000);
+
+        jwtUtil = new JwtUtil(jwtConfig);
+        jwtUtil.init();
+
+        verifications = new AtomicInteger();
+        countingVerifier = token -> {
+            verifications.incrementAndGet();
+            return jwtUtil.validate(token);
+        };
+    }
+
+    @Test
+    void validate_WhenEnabled_ShouldVerifySignatureOnlyOnce() {
+        jwtConfig.getVerifiedTokenCache().setEnabled(true);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtConfig, new SimpleMeterRegistry());
+        String token = jwtUtil.generateToken(user());
+
+        JwtValidationResult first = cache.validate(token, countingVerifier);
+        JwtValidationResult second = cache.validate(token, countingVerifier);
+
+        assertTrue(first.isValid());
+        assertTrue(second.isValid());
+        assertEquals("student", second.claims().getSubject());
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void validate_WhenDisabled_ShouldAlwaysVerify() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtConfig, new SimpleMeterRegistry());
+        String token = jwtUtil.generateToken(user());
+
+        cache.validate(token, countingVerifier);
+        cache.validate(token, countingVerifier);
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void validate_ShouldNotCacheRejectedTokens() {
+        jwtConfig.getVerifiedTokenCache().setEnabled(true);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtConfig, new SimpleMeterRegistry());
+
+        assertFalse(cache.validate("not-a-jwt", countingVerifier).isValid());
+        assertFalse(cache.validate("not-a-jwt", countingVerifier).isValid());
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void validate_ShouldNotServeExpiredTokens() {
+        jwtConfig.getVerifiedTokenCache().setEnabled(true);
+        jwtConfig.setExpiration(-1_000);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtConfig, new SimpleMeterRegistry());
+        String token = jwtUtil.generateToken(user());
+
+        assertFalse(cache.validate(token, countingVerifier).isValid());
+        assertFalse(cache.validate(token, countingVerifier).isValid());
+
+        assertEquals(2, verifications.get());
+    }
+
+    private User user() {
+        return User.builder().id(1L).username("student").role(UserRole.STUDENT).build();
+    }
+
+}
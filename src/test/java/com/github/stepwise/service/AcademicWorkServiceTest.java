@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -26,7 +27,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
 
 import com.github.stepwise.entity.AcademicWork;
+import com.github.stepwise.entity.ItemStatus;
 import com.github.stepwise.entity.Project;
+import com.github.stepwise.entity.ProjectStatus;
 import com.github.stepwise.entity.StudyGroup;
 import com.github.stepwise.entity.User;
 import com.github.stepwise.entity.UserRole;
@@ -34,11 +37,15 @@ import com.github.stepwise.entity.WorkTemplate;
 import com.github.stepwise.entity.WorkTemplateChapter;
 import com.github.stepwise.exception.NotFoundException;
 import com.github.stepwise.repository.AcademicWorkRepository;
+import com.github.stepwise.repository.AcademicWorkRepository.ItemStatusCount;
+import com.github.stepwise.repository.AcademicWorkRepository.ProjectStatusCount;
+import com.github.stepwise.repository.AcademicWorkRepository.WorkRow;
 import com.github.stepwise.repository.ProjectRepository;
 import com.github.stepwise.repository.StudyGroupRepository;
 import com.github.stepwise.repository.UserRepository;
 import com.github.stepwise.repository.WorkTemplateRepository;
 import com.github.stepwise.web.dto.CreateWorkDto;
+import com.github.stepwise.web.dto.WorkDashboardDto;
 
 @ExtendWith(MockitoExtension.class)
 class AcademicWorkServiceTest {
@@ -396,4 +403,57 @@ class AcademicWorkServiceTest {
         verify(academicWorkRepository, never()).findByStudentId(anyLong());
     }
 
+    @Test
+    void getTeacherDashboard_ShouldFillCountsPerWork() {
+        WorkRow busy = workRow(1L);
+        WorkRow empty = workRow(2L);
+        when(academicWorkRepository.findRowsByTeacherId(3L)).thenReturn(List.of(busy, empty));
+        when(academicWorkRepository.countProjectsByStatus(3L))
+                .thenReturn(List.of(projectCount(1L, ProjectStatus.IN_PROGRESS, 4L)));
+        when(academicWorkRepository.countItemsByStatus(3L)).thenReturn(List.of(
+                itemCount(1L, ItemStatus.SUBMITTED, 5L),
+                itemCount(1L, ItemStatus.APPROVED, 2L)));
+
+        List<WorkDashboardDto> result = academicWorkService.getTeacherDashboard(3L);
+
+        assertEquals(2, result.size());
+        WorkDashboardDto first = result.get(0);
+        assertEquals(4L, first.getProjectsByStatus().get(ProjectStatus.IN_PROGRESS));
+        assertEquals(0L, first.getProjectsByStatus().get(ProjectStatus.DEFENDED));
+        assertEquals(2L, first.getItemsByStatus().get(ItemStatus.APPROVED));
+        assertEquals(5L, first.getAwaitingReview());
+        assertEquals(0L, result.get(1).getAwaitingReview());
+        assertEquals(0L, result.get(1).getProjectsByStatus().get(ProjectStatus.IN_PROGRESS));
+    }
+
+    @Test
+    void getTeacherDashboard_WhenTeacherHasNoWorks_ShouldSkipCounts() {
+        when(academicWorkRepository.findRowsByTeacherId(3L)).thenReturn(List.of());
+
+        assertTrue(academicWorkService.getTeacherDashboard(3L).isEmpty());
+        verify(academicWorkRepository, never()).countItemsByStatus(anyLong());
+    }
+
+    private static WorkRow workRow(Long workId) {
+        WorkRow row = mock(WorkRow.class);
+        when(row.getWorkId()).thenReturn(workId);
+        return row;
+    }
+
+    private static ProjectStatusCount projectCount(Long workId, ProjectStatus status, Long count) {
+        ProjectStatusCount row = mock(ProjectStatusCount.class);
+        when(row.getWorkId()).thenReturn(workId);
+        when(row.getStatus()).thenReturn(status);
+        when(row.getCount()).thenReturn(count);
+        return row;
+    }
+
+    private static ItemStatusCount itemCount(Long workId, ItemStatus status, Long count) {
+        ItemStatusCount row = mock(ItemStatusCount.class);
+        when(row.getWorkId()).thenReturn(workId);
+        when(row.getStatus()).thenReturn(status);
+        when(row.getCount()).thenReturn(count);
+        return row;
+    }
+
 }
@@ -20,6 +20,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.github.stepwise.entity.User;
 import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.exception.InvalidRefreshTokenException;
 import com.github.stepwise.exception.NotFoundException;
 import com.github.stepwise.repository.UserRepository;
 import com.github.stepwise.security.AppUserDetails;
@@ -43,6 +44,9 @@ class AuthServiceTest {
     @Mock
     private JwtUtil jwtUtils;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -70,19 +74,21 @@ class AuthServiceTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(jwtUtils.generateToken("testuser")).thenReturn("jwt-token");
+        when(jwtUtils.generateToken(user)).thenReturn("jwt-token");
+        when(refreshTokenService.issue(user)).thenReturn("refresh-token");
 
         SignInResponseDto result = authService.authenticate(signInDto);
 
         assertNotNull(result);
         assertEquals("jwt-token", result.getToken());
+        assertEquals("refresh-token", result.getRefreshToken());
         assertEquals(1L, result.getUser().getId());
         assertEquals(UserRole.STUDENT.name(), result.getUser().getRole());
         assertFalse(result.isTemporaryPassword());
 
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(userRepository).findById(1L);
-        verify(jwtUtils).generateToken("testuser");
+        verify(jwtUtils).generateToken(user);
     }
 
     @Test
@@ -103,7 +109,7 @@ class AuthServiceTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(userRepository.findById(1L)).thenReturn(Optional.of(userWithTempPassword));
-        when(jwtUtils.generateToken("testuser")).thenReturn("jwt-token");
+        when(jwtUtils.generateToken(userWithTempPassword)).thenReturn("jwt-token");
 
         SignInResponseDto result = authService.authenticate(signInDto);
 
@@ -122,7 +128,31 @@ class AuthServiceTest {
 
         assertEquals("Invalid credentials", exception.getMessage());
         verify(userRepository, never()).findById(anyLong());
-        verify(jwtUtils, never()).generateToken(anyString());
+        verify(jwtUtils, never()).generateToken(any(User.class));
+        verify(refreshTokenService, never()).issue(any(User.class));
+    }
+
+    @Test
+    void refresh_ShouldIssueNewAccessTokenWithoutPasswordCheck() {
+        when(refreshTokenService.rotate("old-refresh"))
+                .thenReturn(new RefreshTokenService.Rotation(user, "new-refresh"));
+        when(jwtUtils.generateToken(user)).thenReturn("jwt-token");
+
+        SignInResponseDto result = authService.refresh("old-refresh");
+
+        assertEquals("jwt-token", result.getToken());
+        assertEquals("new-refresh", result.getRefreshToken());
+        assertEquals(1L, result.getUser().getId());
+        verify(authenticationManager, never()).authenticate(any());
+    }
+
+    @Test
+    void refresh_WithRejectedToken_ShouldPropagateException() {
+        when(refreshTokenService.rotate("bad"))
+                .thenThrow(new InvalidRefreshTokenException("Unknown refresh token"));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh("bad"));
+        verify(jwtUtils, never()).generateToken(any(User.class));
     }
 
     @Test
@@ -139,7 +169,7 @@ class AuthServiceTest {
                 () -> authService.authenticate(signInDto));
 
         assertEquals("User not found with id: 1", exception.getMessage());
-        verify(jwtUtils, never()).generateToken(anyString());
+        verify(jwtUtils, never()).generateToken(any(User.class));
     }
 
     @Test
@@ -151,7 +181,7 @@ class AuthServiceTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(jwtUtils.generateToken("testuser")).thenReturn("jwt-token");
+        when(jwtUtils.generateToken(user)).thenReturn("jwt-token");
 
         authService.authenticate(signInDto);
 
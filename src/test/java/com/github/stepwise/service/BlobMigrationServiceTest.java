@@ -0,0 +1,120 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.github.stepwise.configuration.MinioConfig;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.repository.ItemHistoryRepository.LegacyFile;
+import com.github.stepwise.service.StorageService.BatchResult;
+
+@ExtendWith(MockitoExtension.class)
+class BlobMigrationServiceTest {
+
+    private static final String TEST_DIGEST = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Mock
+    private StorageService storageService;
+    @Mock
+    private ItemHistoryRepository itemHistoryRepository;
+    @Mock
+    private MinioConfig minioConfig;
+
+    @InjectMocks
+    private BlobMigrationService blobMigrationService;
+
+    @Test
+    void migrate_ShouldDoNothing_WhenContentAddressingDisabled() {
+        when(minioConfig.isContentAddressed()).thenReturn(false);
+
+        blobMigrationService.migrate();
+
+        verifyNoInteractions(itemHistoryRepository, storageService);
+    }
+
+    @Test
+    void migrateBatch_ShouldStoreBlobRecordDigestAndRemoveLegacyObject() throws Exception {
+        when(storageService.explanatoryObjectName(1L, 2L, 3L, 4L, "document.pdf")).thenReturn("1/2/3/4/document.pdf");
+        when(storageService.getObjects(List.of("1/2/3/4/document.pdf"))).thenReturn(Stream.of(BatchResult.succeeded(
+                "1/2/3/4/document.pdf", new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8)))));
+        when(storageService.removeObjects(List.of("1/2/3/4/document.pdf")))
+                .thenReturn(Stream.of(BatchResult.succeeded("1/2/3/4/document.pdf", "1/2/3/4/document.pdf")));
+
+        assertEquals(1, blobMigrationService.migrateBatch(List.of(legacyFile(4L))));
+
+        verify(storageService).storeBlob("1/2/3/4/document.pdf", TEST_DIGEST);
+        verify(itemHistoryRepository).setContentDigest(4L, TEST_DIGEST);
+    }
+
+    @Test
+    void migrateBatch_ShouldLeaveEntryLegacy_WhenObjectMissing() throws Exception {
+        when(storageService.explanatoryObjectName(1L, 2L, 3L, 4L, "document.pdf")).thenReturn("1/2/3/4/document.pdf");
+        when(storageService.getObjects(List.of("1/2/3/4/document.pdf"))).thenReturn(Stream.of(
+                BatchResult.failed("1/2/3/4/document.pdf", new IllegalStateException("NoSuchKey"))));
+        when(storageService.removeObjects(List.of())).thenReturn(Stream.empty());
+
+        assertEquals(0, blobMigrationService.migrateBatch(List.of(legacyFile(4L))));
+
+        verify(storageService, never()).storeBlob(anyString(), anyString());
+        verify(itemHistoryRepository, never()).setContentDigest(anyLong(), anyString());
+    }
+
+    @Test
+    void migrate_ShouldStop_WhenNoLegacyFilesLeft() {
+        when(minioConfig.isContentAddressed()).thenReturn(true);
+        when(minioConfig.getBlobMigrationBatchSize()).thenReturn(1);
+        when(itemHistoryRepository.findLegacyFilesAfter(any(), any())).thenReturn(List.of());
+
+        blobMigrationService.migrate();
+
+        verify(itemHistoryRepository).findLegacyFilesAfter(any(), any());
+        verifyNoInteractions(storageService);
+    }
+
+    private static LegacyFile legacyFile(Long historyId) {
+        return new LegacyFile() {
+            @Override
+            public Long getHistoryId() {
+                return historyId;
+            }
+
+            @Override
+            public String getFileName() {
+                return "document.pdf";
+            }
+
+            @Override
+            public Long getItemId() {
+                return 3L;
+            }
+
+            @Override
+            public Long getProjectId() {
+                return 2L;
+            }
+
+            @Override
+            public Long getStudentId() {
+                return 1L;
+            }
+        };
+    }
+
+}
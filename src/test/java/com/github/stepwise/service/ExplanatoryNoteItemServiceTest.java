@@ -2,19 +2,24 @@ package com.github.stepwise.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -22,10 +27,16 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.github.stepwise.configuration.FileUploadConfig;
@@ -37,10 +48,17 @@ import com.github.stepwise.entity.Project;
 import com.github.stepwise.entity.User;
 import com.github.stepwise.entity.UserRole;
 import com.github.stepwise.entity.WorkTemplate;
+import com.github.stepwise.event.ExplanatoryFileStagedEvent;
+import com.github.stepwise.event.ItemSubmittedEvent;
 import com.github.stepwise.exception.NotFoundException;
 import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ExplanatoryNoteRepository.ItemState;
+import com.github.stepwise.repository.ItemHistoryRepository;
 import com.github.stepwise.repository.ProjectRepository;
+import com.github.stepwise.repository.ProjectRepository.DraftTarget;
 import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+import com.github.stepwise.service.StorageService.StagedFile;
 
 @ExtendWith(MockitoExtension.class)
 class ExplanatoryNoteItemServiceTest {
@@ -50,11 +68,19 @@ class ExplanatoryNoteItemServiceTest {
     @Mock
     private ExplanatoryNoteRepository explanatoryNoteRepository;
     @Mock
+    private ItemHistoryRepository itemHistoryRepository;
+    @Mock
     private FileUploadConfig fileUploadConfig;
     @Mock
     private StorageService storageService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ProjectProgressService projectProgressService;
 
     @InjectMocks
     private ExplanatoryNoteItemService service;
@@ -93,97 +119,95 @@ class ExplanatoryNoteItemServiceTest {
 
     @Test
     void draftItem_ShouldCreateNewItem_WhenNoItemsExist() throws Exception {
-        project.getItems().clear();
-
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        stageAndRunTransactionsInline();
+        when(projectRepository.findDraftTargetById(1L)).thenReturn(Optional.of(draftTarget(1L, 3)));
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(1L)).thenReturn(Optional.empty());
+        when(explanatoryNoteRepository.countByProjectId(1L)).thenReturn(0L);
+        when(projectRepository.getReferenceById(1L)).thenReturn(project);
+        when(userRepository.getReferenceById(1L)).thenReturn(student);
         when(file.getContentType()).thenReturn("application/pdf");
         when(fileUploadConfig.getAllowedMimeTypes()).thenReturn(List.of("application/pdf"));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
         when(file.getOriginalFilename()).thenReturn("document.pdf");
-
-        when(projectRepository.save(any(Project.class))).thenAnswer(invocation -> {
-            Project saved = invocation.getArgument(0);
-            if (!saved.getItems().isEmpty()) {
-                ExplanatoryNoteItem lastItem = saved.getItems().getLast();
-                if (lastItem.getId() == null) {
-                    lastItem.setId(10L);
-                }
-                if (!lastItem.getHistory().isEmpty()) {
-                    ItemHistory lastHistory = lastItem.getHistory().getLast();
-                    if (lastHistory.getId() == null) {
-                        lastHistory.setId(100L);
-                    }
-                }
-            }
+        when(explanatoryNoteRepository.save(any(ExplanatoryNoteItem.class))).thenAnswer(invocation -> {
+            ExplanatoryNoteItem saved = invocation.getArgument(0);
+            saved.setId(10L);
+            return saved;
+        });
+        when(itemHistoryRepository.save(any(ItemHistory.class))).thenAnswer(invocation -> {
+            ItemHistory saved = invocation.getArgument(0);
+            saved.setId(100L);
             return saved;
         });
 
         service.draftItem(1L, 1L, file);
 
-        verify(projectRepository, times(2)).save(any(Project.class));
-        verify(storageService).uploadExplanatoryFile(eq(1L), eq(1L), eq(10L), anyLong(), eq(file));
+        ArgumentCaptor<ItemHistory> historyCaptor = ArgumentCaptor.forClass(ItemHistory.class);
+        verify(itemHistoryRepository).save(historyCaptor.capture());
+        assertNull(historyCaptor.getValue().getPreviousStatus());
+        assertEquals("document.pdf", historyCaptor.getValue().getFileName());
+        assertEquals("staging/abc", historyCaptor.getValue().getStagedObject());
+        verify(projectRepository, never()).save(any(Project.class));
+        verify(eventPublisher).publishEvent(
+                new ExplanatoryFileStagedEvent(100L, "staging/abc", null, 1L, 1L, 10L, "document.pdf"));
+        verify(projectProgressService).recordTransition(1L, null, ItemStatus.DRAFT);
     }
 
     @Test
     void draftItem_ShouldUpdateExistingDraft() throws Exception {
-        project.getItems().clear();
-        project.getItems().add(item);
-
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        stageAndRunTransactionsInline();
+        when(projectRepository.findDraftTargetById(1L)).thenReturn(Optional.of(draftTarget(1L, 3)));
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(1L))
+                .thenReturn(Optional.of(itemState(1L, 0, ItemStatus.DRAFT)));
+        when(explanatoryNoteRepository.countByProjectId(1L)).thenReturn(1L);
+        when(explanatoryNoteRepository.getReferenceById(1L)).thenReturn(item);
+        when(userRepository.getReferenceById(1L)).thenReturn(student);
         when(file.getContentType()).thenReturn("application/pdf");
         when(fileUploadConfig.getAllowedMimeTypes()).thenReturn(List.of("application/pdf"));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
         when(file.getOriginalFilename()).thenReturn("updated.pdf");
-
-        when(projectRepository.save(any(Project.class))).thenAnswer(invocation -> {
-            Project saved = invocation.getArgument(0);
-            if (!saved.getItems().isEmpty()) {
-                ExplanatoryNoteItem lastItem = saved.getItems().getLast();
-                if (!lastItem.getHistory().isEmpty()) {
-                    ItemHistory lastHistory = lastItem.getHistory().getLast();
-                    if (lastHistory.getId() == null) {
-                        lastHistory.setId(200L);
-                    }
-                }
-            }
+        when(itemHistoryRepository.save(any(ItemHistory.class))).thenAnswer(invocation -> {
+            ItemHistory saved = invocation.getArgument(0);
+            saved.setId(200L);
             return saved;
         });
 
         service.draftItem(1L, 1L, file);
 
-        verify(storageService).uploadExplanatoryFile(eq(1L), eq(1L), eq(1L), anyLong(), eq(file));
+        verify(explanatoryNoteRepository, never()).findById(anyLong());
+        verify(explanatoryNoteRepository, never()).save(any(ExplanatoryNoteItem.class));
+        verify(eventPublisher).publishEvent(
+                new ExplanatoryFileStagedEvent(200L, "staging/abc", null, 1L, 1L, 1L, "updated.pdf"));
+        verifyNoInteractions(projectProgressService);
         assertEquals(ItemStatus.DRAFT, item.getStatus());
     }
 
     @Test
     void draftItem_ShouldReuseRejectedItem() throws Exception {
         item.setStatus(ItemStatus.REJECTED);
-        project.getItems().clear();
-        project.getItems().add(item);
-
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        stageAndRunTransactionsInline();
+
+        when(projectRepository.findDraftTargetById(1L)).thenReturn(Optional.of(draftTarget(1L, 3)));
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(1L))
+                .thenReturn(Optional.of(itemState(1L, 0, ItemStatus.REJECTED)));
+        when(explanatoryNoteRepository.countByProjectId(1L)).thenReturn(1L);
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
+        when(userRepository.getReferenceById(1L)).thenReturn(student);
         when(file.getContentType()).thenReturn("application/pdf");
         when(fileUploadConfig.getAllowedMimeTypes()).thenReturn(List.of("application/pdf"));
-        when(userRepository.findById(1L)).thenReturn(Optional.of(student));
         when(file.getOriginalFilename()).thenReturn("new-version.pdf");
-
-        when(projectRepository.save(any(Project.class))).thenAnswer(invocation -> {
-            Project saved = invocation.getArgument(0);
-            if (!saved.getItems().isEmpty()) {
-                ExplanatoryNoteItem lastItem = saved.getItems().getLast();
-                if (!lastItem.getHistory().isEmpty()) {
-                    ItemHistory lastHistory = lastItem.getHistory().getLast();
-                    if (lastHistory.getId() == null) {
-                        lastHistory.setId(200L);
-                    }
-                }
-            }
+        when(itemHistoryRepository.save(any(ItemHistory.class))).thenAnswer(invocation -> {
+            ItemHistory saved = invocation.getArgument(0);
+            saved.setId(200L);
             return saved;
         });
 
         service.draftItem(1L, 1L, file);
 
-        verify(storageService).uploadExplanatoryFile(eq(1L), eq(1L), eq(1L), anyLong(), eq(file));
+        ArgumentCaptor<ItemHistory> historyCaptor = ArgumentCaptor.forClass(ItemHistory.class);
+        verify(itemHistoryRepository).save(historyCaptor.capture());
+        assertEquals(ItemStatus.REJECTED, historyCaptor.getValue().getPreviousStatus());
+        verify(eventPublisher).publishEvent(
+                new ExplanatoryFileStagedEvent(200L, "staging/abc", null, 1L, 1L, 1L, "new-version.pdf"));
+        verify(projectProgressService).recordTransition(1L, ItemStatus.REJECTED, ItemStatus.DRAFT);
         assertEquals(ItemStatus.DRAFT, item.getStatus());
     }
 
@@ -195,36 +219,114 @@ class ExplanatoryNoteItemServiceTest {
         assertThrows(IllegalArgumentException.class, () -> service.draftItem(1L, 1L, file));
     }
 
+    @Test
+    void draftItem_ShouldThrow_WhenProjectNotFound() {
+        when(projectRepository.findDraftTargetById(1L)).thenReturn(Optional.empty());
+        when(file.getContentType()).thenReturn("application/pdf");
+        when(fileUploadConfig.getAllowedMimeTypes()).thenReturn(List.of("application/pdf"));
+
+        assertThrows(NotFoundException.class, () -> service.draftItem(1L, 1L, file));
+    }
+
     @Test
     void draftItem_ShouldThrow_WhenUserNotOwner() {
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(projectRepository.findDraftTargetById(1L)).thenReturn(Optional.of(draftTarget(1L, 3)));
         when(file.getContentType()).thenReturn("application/pdf");
         when(fileUploadConfig.getAllowedMimeTypes()).thenReturn(List.of("application/pdf"));
 
         assertThrows(AccessDeniedException.class, () -> service.draftItem(999L, 1L, file));
+        verify(storageService, never()).stageExplanatoryFile(any());
     }
 
     @Test
-    void draftItem_ShouldThrow_WhenAllItemsApproved() {
-        project.getItems().clear();
-        for (int i = 0; i < 3; i++) {
-            project.getItems().add(ExplanatoryNoteItem.builder()
-                    .id((long) i)
-                    .orderNumber(i)
-                    .status(ItemStatus.APPROVED)
-                    .build());
-        }
-
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+    void draftItem_ShouldThrow_WhenAllItemsApproved() throws Exception {
+        stageAndRunTransactionsInline();
+        when(projectRepository.findDraftTargetById(1L)).thenReturn(Optional.of(draftTarget(1L, 3)));
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(1L))
+                .thenReturn(Optional.of(itemState(2L, 2, ItemStatus.APPROVED)));
+        when(explanatoryNoteRepository.countByProjectId(1L)).thenReturn(3L);
         when(file.getContentType()).thenReturn("application/pdf");
         when(fileUploadConfig.getAllowedMimeTypes()).thenReturn(List.of("application/pdf"));
 
         assertThrows(IllegalArgumentException.class, () -> service.draftItem(1L, 1L, file));
     }
 
+    @Test
+    void draftItem_ShouldThrow_WhenLastItemSubmitted() throws Exception {
+        stageAndRunTransactionsInline();
+        when(projectRepository.findDraftTargetById(1L)).thenReturn(Optional.of(draftTarget(1L, 3)));
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(1L))
+                .thenReturn(Optional.of(itemState(1L, 0, ItemStatus.SUBMITTED)));
+        when(explanatoryNoteRepository.countByProjectId(1L)).thenReturn(1L);
+        when(file.getContentType()).thenReturn("application/pdf");
+        when(fileUploadConfig.getAllowedMimeTypes()).thenReturn(List.of("application/pdf"));
+
+        assertThrows(IllegalArgumentException.class, () -> service.draftItem(1L, 1L, file));
+        verify(itemHistoryRepository, never()).save(any(ItemHistory.class));
+        verify(storageService).removeObject("staging/abc");
+    }
+
+    @Test
+    void draftItem_ShouldStageStreamedBody() throws Exception {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(fileUploadConfig.getAllowedMimeTypes()).thenReturn(List.of("application/pdf"));
+        when(fileUploadConfig.getMaxStreamSize()).thenReturn(DataSize.ofMegabytes(1));
+        when(projectRepository.findDraftTargetById(1L)).thenReturn(Optional.of(draftTarget(1L, 3)));
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(1L)).thenReturn(Optional.empty());
+        when(explanatoryNoteRepository.countByProjectId(1L)).thenReturn(0L);
+        when(projectRepository.getReferenceById(1L)).thenReturn(project);
+        when(userRepository.getReferenceById(1L)).thenReturn(student);
+        when(explanatoryNoteRepository.save(any(ExplanatoryNoteItem.class))).thenAnswer(invocation -> {
+            ExplanatoryNoteItem saved = invocation.getArgument(0);
+            saved.setId(10L);
+            return saved;
+        });
+        when(itemHistoryRepository.save(any(ItemHistory.class))).thenAnswer(invocation -> {
+            ItemHistory saved = invocation.getArgument(0);
+            saved.setId(100L);
+            return saved;
+        });
+        when(storageService.stageExplanatoryStream(any(InputStream.class), eq("application/pdf")))
+                .thenAnswer(invocation -> {
+                    byte[] content = invocation.<InputStream>getArgument(0).readAllBytes();
+                    assertEquals("%PDF-1.7 body", new String(content, StandardCharsets.US_ASCII));
+                    return new StagedFile("staging/abc", null);
+                });
+
+        service.draftItem(1L, 1L, "../chapter.pdf", "application/pdf", 13L,
+                new ByteArrayInputStream("%PDF-1.7 body".getBytes(StandardCharsets.US_ASCII)));
+
+        verify(eventPublisher).publishEvent(
+                new ExplanatoryFileStagedEvent(100L, "staging/abc", null, 1L, 1L, 10L, "chapter.pdf"));
+    }
+
+    @Test
+    void draftItem_ShouldRejectStream_WhenSignatureDoesNotMatch() throws Exception {
+        when(fileUploadConfig.getAllowedMimeTypes()).thenReturn(List.of("application/pdf"));
+        when(fileUploadConfig.getMaxStreamSize()).thenReturn(DataSize.ofMegabytes(1));
+        when(projectRepository.findDraftTargetById(1L)).thenReturn(Optional.of(draftTarget(1L, 3)));
+
+        assertThrows(IllegalArgumentException.class, () -> service.draftItem(1L, 1L, "chapter.pdf",
+                "application/pdf", null, new ByteArrayInputStream("MZ not a pdf".getBytes(StandardCharsets.US_ASCII))));
+
+        verify(storageService, never()).stageExplanatoryStream(any(), any());
+    }
+
+    @Test
+    void draftItem_ShouldRejectStream_WhenDeclaredLengthExceedsLimit() {
+        when(fileUploadConfig.getAllowedMimeTypes()).thenReturn(List.of("application/pdf"));
+        when(fileUploadConfig.getMaxStreamSize()).thenReturn(DataSize.ofMegabytes(1));
+
+        assertThrows(MaxUploadSizeExceededException.class, () -> service.draftItem(1L, 1L, "chapter.pdf",
+                "application/pdf", DataSize.ofMegabytes(2).toBytes(), new ByteArrayInputStream(new byte[0])));
+
+        verify(projectRepository, never()).findDraftTargetById(anyLong());
+    }
+
     @Test
     void submitItem_ShouldChangeStatusToSubmitted() {
-        when(explanatoryNoteRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
         when(explanatoryNoteRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
         when(userRepository.findById(1L)).thenReturn(Optional.of(student));
 
@@ -233,22 +335,25 @@ class ExplanatoryNoteItemServiceTest {
         assertEquals(ItemStatus.SUBMITTED, item.getStatus());
         assertFalse(item.getHistory().isEmpty());
         verify(explanatoryNoteRepository).save(item);
+        verify(eventPublisher).publishEvent(new ItemSubmittedEvent(1L, 1L, 1L));
+        verify(projectProgressService).recordTransition(1L, ItemStatus.DRAFT, ItemStatus.SUBMITTED);
     }
 
     @Test
     void submitItem_ShouldThrow_WhenNotDraft() {
         item.setStatus(ItemStatus.SUBMITTED);
-        when(explanatoryNoteRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
         when(explanatoryNoteRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
         when(userRepository.findById(1L)).thenReturn(Optional.of(student));
 
         assertThrows(IllegalArgumentException.class, () -> service.submitItem(1L, 1L));
+        verify(eventPublisher, never()).publishEvent(any(ItemSubmittedEvent.class));
     }
 
     @Test
     void approveItem_ShouldChangeStatusToApproved() {
         item.setStatus(ItemStatus.SUBMITTED);
-        when(explanatoryNoteRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
         when(explanatoryNoteRepository.existsByIdAndTeacherId(1L, 2L)).thenReturn(true);
         when(userRepository.findById(2L)).thenReturn(Optional.of(teacher));
 
@@ -256,12 +361,13 @@ class ExplanatoryNoteItemServiceTest {
 
         assertEquals(ItemStatus.APPROVED, item.getStatus());
         verify(explanatoryNoteRepository).save(item);
+        verify(projectProgressService).recordTransition(1L, ItemStatus.SUBMITTED, ItemStatus.APPROVED);
     }
 
     @Test
     void rejectItem_ShouldChangeStatusToRejected() {
         item.setStatus(ItemStatus.SUBMITTED);
-        when(explanatoryNoteRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
         when(explanatoryNoteRepository.existsByIdAndTeacherId(1L, 2L)).thenReturn(true);
         when(userRepository.findById(2L)).thenReturn(Optional.of(teacher));
 
@@ -269,40 +375,159 @@ class ExplanatoryNoteItemServiceTest {
 
         assertEquals(ItemStatus.REJECTED, item.getStatus());
         verify(explanatoryNoteRepository).save(item);
+        verify(projectProgressService).recordTransition(1L, ItemStatus.SUBMITTED, ItemStatus.REJECTED);
     }
 
     @Test
     void rejectItem_ShouldThrow_WhenNotSubmitted() {
         item.setStatus(ItemStatus.DRAFT);
-        when(explanatoryNoteRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
         when(explanatoryNoteRepository.existsByIdAndTeacherId(1L, 2L)).thenReturn(true);
         when(userRepository.findById(2L)).thenReturn(Optional.of(teacher));
 
         assertThrows(IllegalArgumentException.class, () -> service.rejectItem(1L, 2L, "Коммент"));
+        verifyNoInteractions(projectProgressService);
+    }
+
+    @Test
+    void getItemFileUrl_ShouldPresignRequestedHistoryEntry() throws Exception {
+        item.getHistory().add(ItemHistory.builder().id(10L).fileName("first.pdf").build());
+        item.getHistory().add(ItemHistory.builder().id(11L).fileName("second.pdf").build());
+
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
+        when(storageService.resolveExplanatoryObject(null, null, 1L, 1L, 1L, 10L, "first.pdf"))
+                .thenReturn("1/1/1/10/first.pdf");
+        when(storageService.presignObject("1/1/1/10/first.pdf", "first.pdf"))
+                .thenReturn("http://minio/works/1/1/1/10/first.pdf?X-Amz-Signature=abc");
+
+        assertEquals("http://minio/works/1/1/1/10/first.pdf?X-Amz-Signature=abc",
+                service.getItemFileUrl(1L, UserRole.TEACHER, 1L, 1L, 10L));
     }
 
     @Test
-    void getItemFile_ShouldReturnLatestFile() throws Exception {
-        ItemHistory history = ItemHistory.builder()
+    void getItemFileUrl_ShouldPresignStagedObject_WhenUploadNotFinalized() throws Exception {
+        item.getHistory().add(ItemHistory.builder()
                 .id(10L)
                 .fileName("test.pdf")
-                .build();
-        item.getHistory().add(history);
+                .stagedObject("staging/abc")
+                .build());
+
+        when(explanatoryNoteRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
+        when(storageService.resolveExplanatoryObject("staging/abc", null, 1L, 1L, 1L, 10L, "test.pdf"))
+                .thenReturn("staging/abc");
+        when(storageService.presignObject("staging/abc", "test.pdf")).thenReturn("http://minio/works/staging/abc");
 
-        when(explanatoryNoteRepository.findById(1L)).thenReturn(Optional.of(item));
+        assertEquals("http://minio/works/staging/abc", service.getItemFileUrl(1L, UserRole.STUDENT, 1L, 1L, null));
+    }
+
+    @Test
+    void getItemFileMetadata_ShouldDescribeFileWithoutTouchingStorage() {
+        LocalDateTime changedAt = LocalDateTime.of(2025, 5, 10, 12, 30);
+        item.getHistory().add(ItemHistory.builder().id(10L).fileName("test.pdf").changedAt(changedAt).build());
+
+        when(explanatoryNoteRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
+        when(storageService.resolveExplanatoryObject(null, null, 1L, 1L, 1L, 10L, "test.pdf"))
+                .thenReturn("1/1/1/10/test.pdf");
 
-        InputStream stream = new ByteArrayInputStream(new byte[0]);
-        when(storageService.downloadExplanatoryFile(anyLong(), anyLong(), anyLong(), eq(10L), eq("test.pdf")))
-                .thenReturn(stream);
+        ItemFile itemFile = service.getItemFileMetadata(1L, UserRole.STUDENT, 1L, 1L, null);
 
-        assertNotNull(service.getItemFile(1L, 1L, 1L, null));
+        assertEquals(10L, itemFile.historyId());
+        assertEquals("1/1/1/10/test.pdf", itemFile.objectName());
+        assertEquals(changedAt.atZone(ZoneId.systemDefault()).toInstant(), itemFile.lastModified());
+        verifyNoMoreInteractions(storageService);
     }
 
     @Test
-    void getItemFile_ShouldThrow_WhenNoFile() {
-        when(explanatoryNoteRepository.findById(1L)).thenReturn(Optional.of(item));
+    void getItemFileMetadata_ShouldPointAtBlob_WhenDigestRecorded() {
+        item.getHistory().add(ItemHistory.builder()
+                .id(10L)
+                .fileName("test.pdf")
+                .changedAt(LocalDateTime.now())
+                .contentDigest("9f86d08188")
+                .build());
+
+        when(explanatoryNoteRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
+        when(storageService.resolveExplanatoryObject(null, "9f86d08188", 1L, 1L, 1L, 10L, "test.pdf"))
+                .thenReturn("blobs/9f86d08188");
+
+        assertEquals("blobs/9f86d08188", service.getItemFileMetadata(1L, UserRole.STUDENT, 1L, 1L, null).objectName());
+    }
+
+    @Test
+    void getItemFileMetadata_ShouldPointAtStagedObject_WhenUploadNotFinalized() {
+        item.getHistory().add(ItemHistory.builder()
+                .id(10L)
+                .fileName("test.pdf")
+                .changedAt(LocalDateTime.now())
+                .stagedObject("staging/abc")
+                .build());
+
+        when(explanatoryNoteRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
+        when(storageService.resolveExplanatoryObject("staging/abc", null, 1L, 1L, 1L, 10L, "test.pdf"))
+                .thenReturn("staging/abc");
+
+        assertEquals("staging/abc", service.getItemFileMetadata(1L, UserRole.STUDENT, 1L, 1L, 10L).objectName());
+    }
+
+    @Test
+    void getItemFileMetadata_ShouldThrow_WhenNoFile() {
+        when(explanatoryNoteRepository.existsByIdAndUserId(1L, 1L)).thenReturn(true);
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
+
+        assertThrows(NotFoundException.class,
+                () -> service.getItemFileMetadata(1L, UserRole.STUDENT, 1L, 1L, null));
+    }
+
+    @Test
+    void getItemFileMetadata_ShouldThrow_WhenStagedItemBelongsToAnotherStudent() throws Exception {
+        item.getHistory().add(ItemHistory.builder()
+                .id(10L)
+                .fileName("test.pdf")
+                .stagedObject("staging/abc")
+                .build());
+
+        when(explanatoryNoteRepository.existsByIdAndUserId(1L, 3L)).thenReturn(false);
 
-        assertThrows(NotFoundException.class, () -> service.getItemFile(1L, 1L, 1L, null));
+        assertThrows(NotFoundException.class,
+                () -> service.getItemFileMetadata(3L, UserRole.STUDENT, 1L, 1L, null));
+        assertThrows(NotFoundException.class, () -> service.getItemFileUrl(3L, UserRole.STUDENT, 1L, 1L, null));
+        verify(explanatoryNoteRepository, never()).findWithHistoryById(anyLong());
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void getItemFileMetadata_ShouldNotResolveBlob_OfAnotherStudentsItem() {
+        item.getHistory().add(ItemHistory.builder()
+                .id(10L)
+                .fileName("test.pdf")
+                .contentDigest("9f86d08188")
+                .build());
+
+        when(explanatoryNoteRepository.existsByIdAndUserId(1L, 3L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> service.getItemFileUrl(3L, UserRole.STUDENT, 1L, 1L, 10L));
+        assertThrows(NotFoundException.class,
+                () -> service.getItemFileMetadata(3L, UserRole.STUDENT, 1L, 1L, null));
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void getItemFileMetadata_ShouldThrow_WhenItemIsNotInRequestedProject() {
+        item.getHistory().add(ItemHistory.builder()
+                .id(10L)
+                .fileName("test.pdf")
+                .changedAt(LocalDateTime.now())
+                .stagedObject("staging/abc")
+                .build());
+
+        when(explanatoryNoteRepository.findWithHistoryById(1L)).thenReturn(Optional.of(item));
+
+        assertThrows(NotFoundException.class, () -> service.getItemFileMetadata(2L, UserRole.TEACHER, 5L, 1L, null));
+        verifyNoInteractions(storageService);
     }
 
     @Test
@@ -318,4 +543,43 @@ class ExplanatoryNoteItemServiceTest {
                 () -> service.resolveAccessibleUserId(2L, 1L, UserRole.STUDENT));
     }
 
+    private void stageAndRunTransactionsInline() throws Exception {
+        when(storageService.stageExplanatoryFile(file)).thenReturn(new StagedFile("staging/abc", null));
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static DraftTarget draftTarget(Long studentId, Integer countOfChapters) {
+        return new DraftTarget() {
+            @Override
+            public Long getStudentId() {
+                return studentId;
+            }
+
+            @Override
+            public Integer getCountOfChapters() {
+                return countOfChapters;
+            }
+        };
+    }
+
+    private static ItemState itemState(Long id, Integer orderNumber, ItemStatus status) {
+        return new ItemState() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getOrderNumber() {
+                return orderNumber;
+            }
+
+            @Override
+            public ItemStatus getStatus() {
+                return status;
+            }
+        };
+    }
+
 }
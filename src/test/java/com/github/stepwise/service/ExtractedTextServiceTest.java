@@ -0,0 +1,152 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.github.stepwise.configuration.TextExtractionConfig;
+import com.github.stepwise.entity.ExtractedText;
+import com.github.stepwise.entity.ItemHistory;
+import com.github.stepwise.repository.ExtractedTextRepository;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+import com.github.stepwise.service.ObjectFileCache.FileTask;
+
+@ExtendWith(MockitoExtension.class)
+class ExtractedTextServiceTest {
+
+    @Mock
+    private ExtractedTextRepository extractedTextRepository;
+    @Mock
+    private ItemHistoryRepository itemHistoryRepository;
+    @Mock
+    private ObjectFileCache objectFileCache;
+
+    @TempDir
+    Path directory;
+
+    private ExtractedTextService extractedTextService;
+
+    private final ItemFile file = new ItemFile(10L, "report.pdf", "blobs/abc", Instant.now());
+
+    @BeforeEach
+    void setUp() {
+        extractedTextService = new ExtractedTextService(extractedTextRepository, itemHistoryRepository,
+                objectFileCache, new TextExtractionConfig());
+    }
+
+    @AfterEach
+    void tearDown() {
+        extractedTextService.shutdown();
+    }
+
+    @Test
+    void getText_ShouldReturnStoredText_WithoutReadingStorage() {
+        when(extractedTextRepository.findByHistoryId(10L))
+                .thenReturn(Optional.of(ExtractedText.builder().content("stored").build()));
+
+        assertEquals("stored", extractedTextService.getText(file));
+
+        verifyNoInteractions(objectFileCache);
+    }
+
+    @Test
+    void getText_ShouldExtractAndStore_WhenMissing() throws Exception {
+        ItemHistory history = ItemHistory.builder().id(10L).build();
+        when(extractedTextRepository.findByHistoryId(10L)).thenReturn(Optional.empty());
+        storedFile(pdf("Introduction"));
+        when(itemHistoryRepository.getReferenceById(10L)).thenReturn(history);
+
+        assertEquals("Introduction", extractedTextService.getText(file));
+
+        ArgumentCaptor<ExtractedText> captor = ArgumentCaptor.forClass(ExtractedText.class);
+        verify(extractedTextRepository).save(captor.capture());
+        assertEquals(history, captor.getValue().getHistory());
+        assertEquals("Introduction", captor.getValue().getContent());
+    }
+
+    @Test
+    void getText_ShouldReturnText_WhenStoredConcurrently() throws Exception {
+        when(extractedTextRepository.findByHistoryId(10L)).thenReturn(Optional.empty());
+        storedFile(pdf("Introduction"));
+        when(extractedTextRepository.save(any(ExtractedText.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertEquals("Introduction", extractedTextService.getText(file));
+    }
+
+    @Test
+    void getText_ShouldThrow_ForUnsupportedFormat() throws Exception {
+        when(extractedTextRepository.findByHistoryId(10L)).thenReturn(Optional.empty());
+        storedFile("plain text".getBytes(StandardCharsets.UTF_8));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> extractedTextService.getText(file));
+
+        assertNotNull(e.getCause());
+
+        verify(extractedTextRepository, never()).save(any());
+    }
+
+    @Test
+    void extractLater_ShouldStoreTextInBackground() throws Exception {
+        when(extractedTextRepository.findByHistoryId(10L)).thenReturn(Optional.empty());
+        storedFile(pdf("Conclusion"));
+
+        extractedTextService.extractLater(10L, "blobs/abc");
+
+        verify(extractedTextRepository, timeout(5000)).save(any(ExtractedText.class));
+    }
+
+    private void storedFile(byte[] content) throws Exception {
+        Path stored = Files.write(directory.resolve("object.bin"), content);
+        when(objectFileCache.<String>read(eq("blobs/abc"), any()))
+                .thenAnswer(invocation -> invocation.<FileTask<String>>getArgument(1).run(stored));
+    }
+
+    private static byte[] pdf(String text) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                content.newLineAtOffset(72, 700);
+                content.showText(text);
+                content.endText();
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+}
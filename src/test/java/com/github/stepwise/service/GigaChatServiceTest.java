@@ -0,0 +1,185 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.github.stepwise.configuration.SummaryConfig;
+import com.github.stepwise.entity.ChunkSummary;
+import com.github.stepwise.repository.ChunkSummaryRepository;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+import com.github.stepwise.utils.ContentDigest;
+import com.github.stepwise.utils.TextChunks;
+
+import chat.giga.client.GigaChatClient;
+import chat.giga.http.client.HttpClientException;
+import chat.giga.model.completion.CompletionRequest;
+import chat.giga.model.completion.CompletionResponse;
+
+@ExtendWith(MockitoExtension.class)
+class GigaChatServiceTest {
+
+    @Mock
+    private ExtractedTextService extractedTextService;
+    @Mock
+    private ChunkSummaryRepository chunkSummaryRepository;
+    @Mock
+    private GigaChatClient client;
+
+    private GigaChatService gigaChatService;
+
+    private final ItemFile file = new ItemFile(10L, "report.pdf", "blobs/abc", Instant.now());
+
+    @BeforeEach
+    void setUp() {
+        SummaryConfig summaryConfig = new SummaryConfig();
+        summaryConfig.setChunkChars(200);
+        summaryConfig.setMaxConcurrentCalls(2);
+        gigaChatService = new GigaChatService(extractedTextService, chunkSummaryRepository, client, summaryConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gigaChatService.shutdown();
+    }
+
+    @Test
+    void summarizeReport_ShouldSummarizeShortTextInOneCall() throws Exception {
+        when(extractedTextService.getText(file)).thenReturn("Short report");
+        CompletionResponse response = response("summary");
+        when(client.completions(any(CompletionRequest.class))).thenReturn(response);
+
+        assertEquals("summary", gigaChatService.summarizeReport(3L, file));
+
+        verify(client, times(1)).completions(any(CompletionRequest.class));
+        verify(chunkSummaryRepository, never())
+                .findByDigestAndPromptVersion(anyString(), eq(GigaChatService.PROMPT_VERSION));
+    }
+
+    @Test
+    void summarizeReport_ShouldSummarizeOnlyChangedChunks_AndReduce() throws Exception {
+        String text = longText();
+        List<String> chunks = TextChunks.split(text, 200);
+        String cachedDigest = ContentDigest.of(chunks.getFirst());
+
+        when(extractedTextService.getText(file)).thenReturn(text);
+        when(chunkSummaryRepository.findByDigestAndPromptVersion(anyString(), eq(GigaChatService.PROMPT_VERSION)))
+                .thenReturn(Optional.empty());
+        when(chunkSummaryRepository.findByDigestAndPromptVersion(cachedDigest, GigaChatService.PROMPT_VERSION))
+                .thenReturn(Optional.of(ChunkSummary.builder().summary("cached").build()));
+        CompletionResponse chunkResponse = response("part");
+        when(client.completions(any(CompletionRequest.class))).thenReturn(chunkResponse);
+
+        assertEquals("part", gigaChatService.summarizeReport(3L, file));
+
+        verify(client, times(chunks.size())).completions(any(CompletionRequest.class));
+        verify(chunkSummaryRepository, times(chunks.size() - 1)).save(any(ChunkSummary.class));
+        assertEquals(chunks.size(), gigaChatService.getCallsToday());
+    }
+
+    @Test
+    void summarizeReport_ShouldNotStoreIntermediateMerges_AsChunkSummaries() throws Exception {
+        String text = longText();
+        List<String> chunks = TextChunks.split(text, 200);
+
+        when(extractedTextService.getText(file)).thenReturn(text);
+        when(chunkSummaryRepository.findByDigestAndPromptVersion(anyString(), eq(GigaChatService.PROMPT_VERSION)))
+                .thenReturn(Optional.empty());
+        CompletionResponse longResponse = response("p".repeat(150));
+        when(client.completions(any(CompletionRequest.class))).thenReturn(longResponse);
+
+        gigaChatService.summarizeReport(3L, file);
+
+        verify(chunkSummaryRepository, times(chunks.size()))
+                .findByDigestAndPromptVersion(anyString(), eq(GigaChatService.PROMPT_VERSION));
+        verify(chunkSummaryRepository, times(chunks.size())).save(any(ChunkSummary.class));
+    }
+
+    @Test
+    void summarizeReport_ShouldPropagateGigaChatFailure_FromChunk() throws Exception {
+        when(extractedTextService.getText(file)).thenReturn(longText());
+        when(chunkSummaryRepository.findByDigestAndPromptVersion(anyString(), eq(GigaChatService.PROMPT_VERSION)))
+                .thenReturn(Optional.empty());
+        when(client.completions(any(CompletionRequest.class))).thenThrow(mock(HttpClientException.class));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> gigaChatService.summarizeReport(3L, file));
+
+        assertInstanceOf(HttpClientException.class, e.getCause());
+        verify(chunkSummaryRepository, never()).save(any(ChunkSummary.class));
+    }
+
+    @Test
+    void summarizeReport_ShouldFail_WithoutCallingGigaChat_WhenDocumentHasNoText() {
+        when(extractedTextService.getText(file)).thenReturn("  \n ");
+
+        assertThrows(IllegalStateException.class, () -> gigaChatService.summarizeReport(3L, file));
+
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void summarizeReport_ShouldInterruptSiblingChunkCalls_WhenOneFails() throws Exception {
+        String text = longText();
+        List<String> chunks = TextChunks.split(text, 200);
+
+        when(extractedTextService.getText(file)).thenReturn(text);
+        when(chunkSummaryRepository.findByDigestAndPromptVersion(anyString(), eq(GigaChatService.PROMPT_VERSION)))
+                .thenReturn(Optional.empty());
+        AtomicInteger started = new AtomicInteger();
+        when(client.completions(any(CompletionRequest.class))).thenAnswer(invocation -> {
+            if (started.incrementAndGet() == 1) {
+                throw mock(HttpClientException.class);
+            }
+            Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            return response("part");
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> assertThrows(RuntimeException.class, () -> gigaChatService.summarizeReport(3L, file)));
+
+        assertTrue(started.get() < chunks.size());
+        verify(chunkSummaryRepository, never()).save(any(ChunkSummary.class));
+    }
+
+    private static String longText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            text.append("Section ").append(i).append(" explains one part of the system design.\n");
+        }
+        return text.toString();
+    }
+
+    private static CompletionResponse response(String content) {
+        CompletionResponse response = mock(CompletionResponse.class, RETURNS_DEEP_STUBS);
+        when(response.choices().isEmpty()).thenReturn(false);
+        when(response.choices().get(0).message().content()).thenReturn(content);
+        return response;
+    }
+
+}
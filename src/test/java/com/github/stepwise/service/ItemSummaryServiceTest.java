@@ -0,0 +1,125 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.github.stepwise.entity.ItemHistory;
+import com.github.stepwise.entity.ItemSummary;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.repository.ItemSummaryRepository;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSummaryServiceTest {
+
+    @Mock
+    private ItemSummaryRepository itemSummaryRepository;
+    @Mock
+    private ItemHistoryRepository itemHistoryRepository;
+    @Mock
+    private GigaChatService gigaChatService;
+
+    @InjectMocks
+    private ItemSummaryService itemSummaryService;
+
+    private final ItemFile file = new ItemFile(10L, "report.pdf", "1/2/3/10/report.pdf", Instant.now());
+
+    @Test
+    void getSummary_ShouldReturnStoredSummary_WithoutCallingGigaChat() {
+        when(itemSummaryRepository.findByHistoryIdAndPromptVersion(10L, GigaChatService.PROMPT_VERSION))
+                .thenReturn(Optional.of(ItemSummary.builder().summary("stored").build()));
+
+        assertEquals("stored", itemSummaryService.getSummary(3L, file));
+
+        verify(gigaChatService, never()).summarizeReport(any(), any());
+    }
+
+    @Test
+    void getSummary_ShouldSummarizeAndStore_WhenMissing() {
+        ItemHistory history = ItemHistory.builder().id(10L).build();
+        when(itemSummaryRepository.findByHistoryIdAndPromptVersion(10L, GigaChatService.PROMPT_VERSION))
+                .thenReturn(Optional.empty());
+        when(gigaChatService.summarizeReport(3L, file)).thenReturn("fresh");
+        when(itemHistoryRepository.getReferenceById(10L)).thenReturn(history);
+
+        assertEquals("fresh", itemSummaryService.getSummary(3L, file));
+
+        ArgumentCaptor<ItemSummary> captor = ArgumentCaptor.forClass(ItemSummary.class);
+        verify(itemSummaryRepository).save(captor.capture());
+        assertEquals(history, captor.getValue().getHistory());
+        assertEquals(GigaChatService.PROMPT_VERSION, captor.getValue().getPromptVersion());
+        assertEquals("fresh", captor.getValue().getSummary());
+    }
+
+    @Test
+    void getSummary_ShouldReturnSummary_WhenStoredConcurrentlyByAnotherInstance() {
+        when(itemSummaryRepository.findByHistoryIdAndPromptVersion(10L, GigaChatService.PROMPT_VERSION))
+                .thenReturn(Optional.empty());
+        when(gigaChatService.summarizeReport(3L, file)).thenReturn("fresh");
+        when(itemSummaryRepository.save(any(ItemSummary.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertEquals("fresh", itemSummaryService.getSummary(3L, file));
+    }
+
+    @Test
+    void getSummary_ShouldCoalesceConcurrentRequests() throws Exception {
+        CountDownLatch upstreamStarted = new CountDownLatch(1);
+        CountDownLatch releaseUpstream = new CountDownLatch(1);
+        when(itemSummaryRepository.findByHistoryIdAndPromptVersion(10L, GigaChatService.PROMPT_VERSION))
+                .thenReturn(Optional.empty());
+        when(gigaChatService.summarizeReport(3L, file)).thenAnswer(invocation -> {
+            upstreamStarted.countDown();
+            releaseUpstream.await(5, TimeUnit.SECONDS);
+            return "shared";
+        });
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<String> first = executor.submit(() -> itemSummaryService.getSummary(3L, file));
+            upstreamStarted.await(5, TimeUnit.SECONDS);
+            Future<String> second = executor.submit(() -> itemSummaryService.getSummary(3L, file));
+
+            Thread.sleep(100);
+            releaseUpstream.countDown();
+
+            assertEquals("shared", first.get(5, TimeUnit.SECONDS));
+            assertEquals("shared", second.get(5, TimeUnit.SECONDS));
+        }
+
+        verify(gigaChatService, times(1)).summarizeReport(3L, file);
+    }
+
+    @Test
+    void getSummary_ShouldPropagateFailure_AndAllowRetry() {
+        when(itemSummaryRepository.findByHistoryIdAndPromptVersion(10L, GigaChatService.PROMPT_VERSION))
+                .thenReturn(Optional.empty());
+        when(gigaChatService.summarizeReport(3L, file))
+                .thenThrow(new RuntimeException("Пустой ответ от GigaChat"))
+                .thenReturn("retried");
+
+        assertThrows(RuntimeException.class, () -> itemSummaryService.getSummary(3L, file));
+        assertEquals("retried", itemSummaryService.getSummary(3L, file));
+    }
+
+}
@@ -0,0 +1,228 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import com.github.stepwise.configuration.MinioConfig;
+import com.github.stepwise.service.ObjectFileCache.CachedFile;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.GetObjectResponse;
+import okhttp3.Headers;
+
+@ExtendWith(MockitoExtension.class)
+class ObjectFileCacheTest {
+
+    @Mock
+    private StorageService storageService;
+
+    @TempDir
+    Path directory;
+
+    private final MinioConfig minioConfig = new MinioConfig();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        minioConfig.getCache().setEnabled(true);
+        minioConfig.getCache().setDirectory(directory);
+    }
+
+    @Test
+    void open_ShouldDownloadOnceAndServeHitsFromDisk() throws Exception {
+        ObjectFileCache cache = new ObjectFileCache(storageService, minioConfig, meterRegistry);
+        when(storageService.getObject("1/2/3/4/report.pdf")).thenReturn(response("1/2/3/4/report.pdf", "%PDF-1.7"));
+
+        assertEquals("%PDF-1.7", read(cache, "1/2/3/4/report.pdf", 0, 8));
+        assertEquals("PDF", read(cache, "1/2/3/4/report.pdf", 1, 3));
+
+        verify(storageService, times(1)).getObject("1/2/3/4/report.pdf");
+        assertEquals(0.5, meterRegistry.get("object.cache.hit.ratio").gauge().value());
+        assertEquals(11.0, meterRegistry.get("object.cache.served").counter().count());
+    }
+
+    @Test
+    void constructor_ShouldRemoveOnlyOwnLeftoverFiles() throws Exception {
+        Path leftover = Files.writeString(directory.resolve("object-123.bin"), "stale");
+        Path unrelated = Files.writeString(directory.resolve("notes.txt"), "keep");
+
+        new ObjectFileCache(storageService, minioConfig, meterRegistry);
+
+        assertTrue(Files.notExists(leftover));
+        assertTrue(Files.exists(unrelated));
+    }
+
+    @Test
+    void open_ShouldEvictToSizeCapAndKeepOpenHandlesReadable() throws Exception {
+        minioConfig.getCache().setMaxSize(DataSize.ofBytes(10));
+        ObjectFileCache cache = new ObjectFileCache(storageService, minioConfig, meterRegistry);
+        when(storageService.getObject("a")).thenReturn(response("a", "aaaaaa"));
+        when(storageService.getObject("b")).thenReturn(response("b", "bbbbbb"));
+
+        try (CachedFile first = cache.open("a").orElseThrow()) {
+            cache.open("b").orElseThrow().close();
+
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(1, files.count());
+            }
+            assertArrayEquals("aaaaaa".getBytes(StandardCharsets.UTF_8), first.inputStream().readAllBytes());
+        }
+    }
+
+    @Test
+    void open_ShouldServeOtherObjects_AndShareDownload_WhileObjectIsLoading() throws Exception {
+        ObjectFileCache cache = new ObjectFileCache(storageService, minioConfig, meterRegistry);
+        CountDownLatch downloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(storageService.getObject("slow")).thenAnswer(invocation -> {
+            downloading.countDown();
+            release.await();
+            return response("slow", "ssss");
+        });
+        when(storageService.getObject("fast")).thenReturn(response("fast", "ffff"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> read(cache, "slow", 0, 4));
+            assertTrue(downloading.await(5, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> read(cache, "slow", 0, 4));
+
+            assertEquals("ffff", read(cache, "fast", 0, 4));
+
+            release.countDown();
+            assertEquals("ssss", first.get(5, TimeUnit.SECONDS));
+            assertEquals("ssss", second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(storageService, times(1)).getObject("slow");
+    }
+
+    @Test
+    void openStream_ShouldReadFromStorage_WhenEntryIsEvictedOnLoad() throws Exception {
+        minioConfig.getCache().setMaxSize(DataSize.ofBytes(4));
+        ObjectFileCache cache = new ObjectFileCache(storageService, minioConfig, meterRegistry);
+        when(storageService.getObject("large"))
+                .thenReturn(response("large", "llllllll"), response("large", "llllllll"));
+        when(storageService.downloadObject("large"))
+                .thenReturn(new ByteArrayInputStream("llllllll".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("llllllll", new String(cache.openStream("large").readAllBytes(), StandardCharsets.UTF_8));
+        assertTrue(isEmpty(directory));
+    }
+
+    @Test
+    void read_ShouldKeepPinnedFile_UntilTaskFinishes() throws Exception {
+        minioConfig.getCache().setMaxSize(DataSize.ofBytes(10));
+        ObjectFileCache cache = new ObjectFileCache(storageService, minioConfig, meterRegistry);
+        when(storageService.getObject("a")).thenReturn(response("a", "aaaaaa"));
+        when(storageService.getObject("b")).thenReturn(response("b", "bbbbbb"));
+
+        String content = cache.read("a", file -> {
+            // Loading "b" goes over the cap, so one of the two entries is evicted.
+            cache.open("b").orElseThrow().close();
+            assertTrue(Files.exists(file));
+            return Files.readString(file);
+        });
+
+        assertEquals("aaaaaa", content);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void read_ShouldSpoolFromStorage_WhenCacheDisabled() throws Exception {
+        minioConfig.getCache().setEnabled(false);
+        ObjectFileCache cache = new ObjectFileCache(storageService, minioConfig, meterRegistry);
+        when(storageService.downloadObject("1/2/3/4/report.pdf"))
+                .thenReturn(new ByteArrayInputStream("body".getBytes(StandardCharsets.UTF_8)));
+
+        Path[] spooled = new Path[1];
+        assertEquals("body", cache.read("1/2/3/4/report.pdf", file -> {
+            spooled[0] = file;
+            return Files.readString(file);
+        }));
+        assertTrue(Files.notExists(spooled[0]));
+    }
+
+    @Test
+    void open_ShouldPropagateStorageError_WithoutLeavingFiles() throws Exception {
+        ObjectFileCache cache = new ObjectFileCache(storageService, minioConfig, meterRegistry);
+        when(storageService.getObject("missing")).thenThrow(new IllegalStateException("NoSuchKey"));
+
+        assertThrows(IllegalStateException.class, () -> cache.open("missing"));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void open_ShouldBypassCache_ForStagedObjects() throws Exception {
+        ObjectFileCache cache = new ObjectFileCache(storageService, minioConfig, meterRegistry);
+
+        assertEquals(Optional.empty(), cache.open(StorageService.STAGING_PREFIX + "abc"));
+        verifyNoInteractions(storageService);
+    }
+
+    @Test
+    void openStream_ShouldReadFromStorage_WhenCacheDisabled() throws Exception {
+        minioConfig.getCache().setEnabled(false);
+        ObjectFileCache cache = new ObjectFileCache(storageService, minioConfig, meterRegistry);
+        when(storageService.downloadObject("1/2/3/4/report.pdf"))
+                .thenReturn(new ByteArrayInputStream("body".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("body", new String(cache.openStream("1/2/3/4/report.pdf").readAllBytes(), StandardCharsets.UTF_8));
+        assertTrue(Files.notExists(directory) || isEmpty(directory));
+    }
+
+    private static String read(ObjectFileCache cache, String objectName, long offset, long length) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CachedFile file = cache.open(objectName).orElseThrow()) {
+            file.transferTo(offset, length, out);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static GetObjectResponse response(String objectName, String content) {
+        return new GetObjectResponse(Headers.of("Content-Type", "application/pdf"), "works", null, objectName,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static boolean isEmpty(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findAny().isEmpty();
+        }
+    }
+
+}
@@ -31,6 +31,8 @@ import com.github.stepwise.entity.PasswordResetToken;
 import com.github.stepwise.entity.User;
 import com.github.stepwise.repository.PasswordResetTokenRepository;
 import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.security.PrincipalCache;
+import com.github.stepwise.security.TokenVersionCache;
 
 @ExtendWith(MockitoExtension.class)
 class PasswordResetServiceTest {
@@ -53,6 +55,15 @@ class PasswordResetServiceTest {
     @Mock
     private ClientConfigurationProperties clientConfig;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private TokenVersionCache tokenVersionCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private PasswordResetService passwordResetService;
 
@@ -116,9 +127,13 @@ class PasswordResetServiceTest {
         verify(passwordEncoder, times(1)).encode(newPassword);
         verify(userRepository, times(1)).save(user);
         verify(tokenRepository, times(1)).delete(resetToken);
+        verify(principalCache, times(1)).evictAfterCommit("testuser");
+        verify(tokenVersionCache, times(1)).evictAfterCommit(1L);
+        verify(refreshTokenService, times(1)).revokeAll(1L);
 
         assertEquals(encodedPassword, user.getPassword());
         assertNull(user.getTempPassword());
+        assertEquals(1, user.getTokenVersion());
     }
 
     @Test
@@ -134,6 +149,7 @@ class PasswordResetServiceTest {
         verify(passwordEncoder, never()).encode(anyString());
         verify(userRepository, never()).save(any(User.class));
         verify(tokenRepository, never()).delete(any(PasswordResetToken.class));
+        verify(principalCache, never()).evictAfterCommit(anyString());
     }
 
     @Test
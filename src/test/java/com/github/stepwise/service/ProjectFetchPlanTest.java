@@ -0,0 +1,250 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.stepwise.entity.AcademicWork;
+import com.github.stepwise.entity.AcademicWorkDeadline;
+import com.github.stepwise.entity.DefenseRegistration;
+import com.github.stepwise.entity.DefenseSchedule;
+import com.github.stepwise.entity.ExplanatoryNoteItem;
+import com.github.stepwise.entity.ItemHistory;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.entity.Profile;
+import com.github.stepwise.entity.Project;
+import com.github.stepwise.entity.ProjectType;
+import com.github.stepwise.entity.StudyGroup;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.entity.WorkTemplate;
+import com.github.stepwise.entity.WorkTemplateChapter;
+import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ProjectRepository;
+import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.web.dto.ProjectResponseDto;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceConfiguration;
+
+/**
+ * Statement counts of the project endpoints against an in-memory H2 database.
+ * Service calls run in a transaction the way the Spring proxy would run them,
+ * and DTOs are mapped outside of it, as the controllers do.
+ */
+class ProjectFetchPlanTest {
+
+    private static EntityManagerFactory entityManagerFactory;
+
+    private static TransactionTemplate transactions;
+
+    private static ProjectService projectService;
+
+    private static Statistics statistics;
+
+    private static Project smallProject;
+
+    private static Project largeProject;
+
+    private static AcademicWork smallWork;
+
+    private static AcademicWork largeWork;
+
+    @BeforeAll
+    static void setUp() {
+        entityManagerFactory = new PersistenceConfiguration("project_fetch_plan")
+                .managedClass(User.class)
+                .managedClass(Profile.class)
+                .managedClass(StudyGroup.class)
+                .managedClass(WorkTemplate.class)
+                .managedClass(WorkTemplateChapter.class)
+                .managedClass(AcademicWork.class)
+                .managedClass(AcademicWorkDeadline.class)
+                .managedClass(DefenseSchedule.class)
+                .managedClass(DefenseRegistration.class)
+                .managedClass(Project.class)
+                .managedClass(ExplanatoryNoteItem.class)
+                .managedClass(ItemHistory.class)
+                .property(PersistenceConfiguration.JDBC_URL,
+                        "jdbc:h2:mem:project_fetch_plan;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+                .property(PersistenceConfiguration.JDBC_USER, "sa")
+                .property(PersistenceConfiguration.JDBC_PASSWORD, "")
+                .property(PersistenceConfiguration.SCHEMAGEN_DATABASE_ACTION, "drop-and-create")
+                .property("hibernate.integration.envers.enabled", "false")
+                .property("hibernate.generate_statistics", "true")
+                .createEntityManagerFactory();
+
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+        transactions = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        projectService = new ProjectService(repositories.getRepository(ProjectRepository.class),
+                repositories.getRepository(ExplanatoryNoteRepository.class),
+                repositories.getRepository(UserRepository.class), null, null);
+
+        transactions.executeWithoutResult(status -> seed(entityManager));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        entityManagerFactory.close();
+    }
+
+    @Test
+    void getByProjectId_ShouldIssueSameStatements_RegardlessOfItemTree() {
+        long small = statements(() -> ProjectResponseDto.fromEntity(
+                inTransaction(() -> projectService.getByProjectId(smallProject.getId()))));
+
+        long large = statements(() -> {
+            ProjectResponseDto dto = ProjectResponseDto.fromEntity(
+                    inTransaction(() -> projectService.getByProjectId(largeProject.getId())));
+            assertEquals(4, dto.getItems().size());
+            assertEquals(5, dto.getItems().getFirst().getHistory().size());
+            assertEquals(List.of(0, 1, 2, 3), dto.getItems().stream().map(item -> item.getOrderNumber()).toList());
+            return dto;
+        });
+
+        assertEquals(small, large);
+    }
+
+    @Test
+    void getAllByWorkId_ShouldIssueSameStatements_RegardlessOfProjectCount() {
+        long small = statements(() -> inTransaction(() -> projectService.getAllByWorkId(smallWork.getId()))
+                .stream().map(ProjectResponseDto::fromEntity).toList());
+
+        long large = statements(() -> {
+            List<ProjectResponseDto> dtos = inTransaction(() -> projectService.getAllByWorkId(largeWork.getId()))
+                    .stream().map(ProjectResponseDto::fromEntity).toList();
+            assertEquals(6, dtos.size());
+            return dtos;
+        });
+
+        assertEquals(small, large);
+    }
+
+    @Test
+    void getOverviewByWorkId_ShouldReadProjectsAndItemsInTwoStatements() {
+        long count = statements(() -> {
+            List<ProjectResponseDto> dtos = inTransaction(() -> projectService.getOverviewByWorkId(largeWork.getId()));
+            assertEquals(6, dtos.size());
+            assertEquals("student2", dtos.getFirst().getOwner().getUsername());
+            assertEquals(4, dtos.getFirst().getItems().size());
+            assertEquals("chapter-0-4.pdf", dtos.getFirst().getItems().getFirst().getLatestFileName());
+            return dtos;
+        });
+
+        assertEquals(2, count);
+    }
+
+    @Test
+    void updateProject_ShouldNotLoadItemsOrHistory() {
+        long small = statements(() -> inTransaction(() -> projectService.updateProject(
+                new Project(smallProject.getId(), "Updated title", "Updated description"))));
+
+        long large = statements(() -> inTransaction(() -> projectService.updateProject(
+                new Project(largeProject.getId(), "Updated title", "Updated description"))));
+
+        assertEquals(small, large);
+        assertEquals(0, statistics.getEntityStatistics(ExplanatoryNoteItem.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(ItemHistory.class.getName()).getLoadCount());
+    }
+
+    private static <T> T inTransaction(Supplier<T> call) {
+        return transactions.execute(status -> call.get());
+    }
+
+    private static long statements(Supplier<?> endpoint) {
+        statistics.clear();
+        endpoint.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private static void seed(EntityManager em) {
+        User teacher = user("teacher", UserRole.TEACHER);
+        em.persist(teacher);
+
+        List<User> students = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            User student = user("student" + i, UserRole.STUDENT);
+            em.persist(student);
+            students.add(student);
+        }
+
+        StudyGroup group = StudyGroup.builder().name("group").students(new ArrayList<>(students)).build();
+        em.persist(group);
+
+        smallWork = work(em, group, teacher);
+        largeWork = work(em, group, teacher);
+
+        smallProject = project(em, smallWork, students.get(0), teacher, 1, 1);
+        project(em, smallWork, students.get(1), teacher, 1, 1);
+
+        largeProject = project(em, largeWork, students.get(2), teacher, 4, 5);
+        for (int i = 3; i < 8; i++) {
+            project(em, largeWork, students.get(i), teacher, 4, 5);
+        }
+    }
+
+    private static User user(String username, UserRole role) {
+        return User.builder()
+                .username(username)
+                .password("x")
+                .email(username + "@example.com")
+                .role(role)
+                .profile(Profile.builder().firstName(username).lastName("Test").build())
+                .build();
+    }
+
+    private static AcademicWork work(EntityManager em, StudyGroup group, User teacher) {
+        WorkTemplate template = WorkTemplate.builder()
+                .templateTitle("template")
+                .workTitle("work")
+                .countOfChapters(4)
+                .type(ProjectType.COURSEWORK)
+                .teacher(teacher)
+                .build();
+        em.persist(template);
+
+        AcademicWork work = AcademicWork.builder().group(group).workTemplate(template).build();
+        em.persist(work);
+        return work;
+    }
+
+    private static Project project(EntityManager em, AcademicWork work, User student, User teacher, int items,
+            int historyPerItem) {
+        Project project = Project.builder().title("project").student(student).academicWork(work).build();
+        em.persist(project);
+
+        for (int i = 0; i < items; i++) {
+            ExplanatoryNoteItem item = new ExplanatoryNoteItem(i, ItemStatus.SUBMITTED, project);
+            em.persist(item);
+            for (int h = 0; h < historyPerItem; h++) {
+                em.persist(ItemHistory.builder()
+                        .item(item)
+                        .previousStatus(h == 0 ? null : ItemStatus.DRAFT)
+                        .newStatus(ItemStatus.DRAFT)
+                        .changedAt(LocalDateTime.now())
+                        .changedBy(h % 2 == 0 ? student : teacher)
+                        .fileName("chapter-" + i + "-" + h + ".pdf")
+                        .build());
+            }
+        }
+        return project;
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.stepwise.configuration.ProjectProgressConfig;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.entity.ProjectProgress;
+import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ExplanatoryNoteRepository.ItemState;
+import com.github.stepwise.repository.ExplanatoryNoteRepository.StatusCount;
+import com.github.stepwise.repository.ProjectProgressRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ProjectProgressServiceTest {
+
+    @Mock
+    private ProjectProgressRepository projectProgressRepository;
+    @Mock
+    private ExplanatoryNoteRepository explanatoryNoteRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ProjectProgressConfig projectProgressConfig = new ProjectProgressConfig();
+
+    private ProjectProgressService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProjectProgressService(projectProgressRepository, explanatoryNoteRepository,
+                projectProgressConfig, transactionTemplate);
+    }
+
+    @Test
+    void recordTransition_ShouldApplyDeltas_WhenItemApproved() {
+        when(projectProgressRepository.applyTransition(eq(1L), eq(0), eq(-1), eq(1), eq(0),
+                eq(ItemStatus.APPROVED), any(LocalDateTime.class))).thenReturn(1);
+
+        service.recordTransition(1L, ItemStatus.SUBMITTED, ItemStatus.APPROVED);
+
+        verify(projectProgressRepository, never()).findForUpdate(anyLong());
+    }
+
+    @Test
+    void recordTransition_ShouldCountNewItem_WhenDraftCreated() {
+        when(projectProgressRepository.applyTransition(eq(1L), eq(1), eq(0), eq(0), eq(0),
+                eq(ItemStatus.DRAFT), any(LocalDateTime.class))).thenReturn(1);
+
+        service.recordTransition(1L, null, ItemStatus.DRAFT);
+
+        verify(projectProgressRepository, never()).save(any(ProjectProgress.class));
+    }
+
+    @Test
+    void recordTransition_ShouldRebuild_WhenRowMissing() {
+        when(projectProgressRepository.applyTransition(eq(1L), anyInt(), anyInt(), anyInt(), anyInt(),
+                eq(ItemStatus.REJECTED), any(LocalDateTime.class))).thenReturn(0);
+        when(projectProgressRepository.findForUpdate(1L)).thenReturn(Optional.empty(), Optional.of(emptyRow(1L)));
+        when(explanatoryNoteRepository.countByProjectIdGroupByStatus(1L))
+                .thenReturn(List.of(statusCount(ItemStatus.REJECTED, 1L)));
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(1L))
+                .thenReturn(Optional.of(itemState(ItemStatus.REJECTED)));
+        when(projectProgressRepository.save(any(ProjectProgress.class))).thenAnswer(i -> i.getArgument(0));
+
+        service.recordTransition(1L, ItemStatus.SUBMITTED, ItemStatus.REJECTED);
+
+        verify(projectProgressRepository).insertEmpty(eq(1L), any(LocalDateTime.class));
+        verify(projectProgressRepository).save(any(ProjectProgress.class));
+    }
+
+    @Test
+    void recordTransition_ShouldRebuildUnderLock_WhenConcurrentTransitionCreatedRow() {
+        when(projectProgressRepository.applyTransition(eq(1L), anyInt(), anyInt(), anyInt(), anyInt(),
+                eq(ItemStatus.DRAFT), any(LocalDateTime.class))).thenReturn(0);
+        when(projectProgressRepository.insertEmpty(eq(1L), any(LocalDateTime.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key value violates unique constraint"));
+        ProjectProgress concurrent = emptyRow(1L);
+        concurrent.setItemCount(1);
+        when(projectProgressRepository.findForUpdate(1L)).thenReturn(Optional.empty(), Optional.of(concurrent));
+        when(explanatoryNoteRepository.countByProjectIdGroupByStatus(1L))
+                .thenReturn(List.of(statusCount(ItemStatus.DRAFT, 2L)));
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(1L))
+                .thenReturn(Optional.of(itemState(ItemStatus.DRAFT)));
+        when(projectProgressRepository.save(concurrent)).thenReturn(concurrent);
+
+        service.recordTransition(1L, null, ItemStatus.DRAFT);
+
+        verify(projectProgressRepository, times(2)).findForUpdate(1L);
+        assertEquals(2, concurrent.getItemCount());
+    }
+
+    @Test
+    void rebuild_ShouldOverwriteCountersFromItems() {
+        ProjectProgress stale = ProjectProgress.builder()
+                .projectId(1L)
+                .itemCount(9)
+                .submittedCount(3)
+                .approvedCount(5)
+                .rejectedCount(1)
+                .latestItemStatus(ItemStatus.SUBMITTED)
+                .build();
+        when(projectProgressRepository.findForUpdate(1L)).thenReturn(Optional.of(stale));
+        when(explanatoryNoteRepository.countByProjectIdGroupByStatus(1L)).thenReturn(List.of(
+                statusCount(ItemStatus.APPROVED, 2L),
+                statusCount(ItemStatus.DRAFT, 1L)));
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(1L))
+                .thenReturn(Optional.of(itemState(ItemStatus.DRAFT)));
+        when(projectProgressRepository.save(stale)).thenReturn(stale);
+
+        ProjectProgress result = service.rebuild(1L);
+
+        assertEquals(3, result.getItemCount());
+        assertEquals(2, result.getApprovedCount());
+        assertEquals(0, result.getSubmittedCount());
+        assertEquals(0, result.getRejectedCount());
+        assertEquals(ItemStatus.DRAFT, result.getLatestItemStatus());
+    }
+
+    @Test
+    void rebuild_ShouldLeaveLatestStatusEmpty_WhenProjectHasNoItems() {
+        when(projectProgressRepository.findForUpdate(2L)).thenReturn(Optional.empty(), Optional.of(emptyRow(2L)));
+        when(explanatoryNoteRepository.countByProjectIdGroupByStatus(2L)).thenReturn(List.of());
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(2L)).thenReturn(Optional.empty());
+        when(projectProgressRepository.save(any(ProjectProgress.class))).thenAnswer(i -> i.getArgument(0));
+
+        ProjectProgress result = service.rebuild(2L);
+
+        assertEquals(2L, result.getProjectId());
+        assertEquals(0, result.getItemCount());
+        assertNull(result.getLatestItemStatus());
+    }
+
+    @Test
+    void repair_ShouldRebuildEveryProjectInBatches() {
+        projectProgressConfig.setRepairBatchSize(2);
+        runTransactionsInline();
+        when(projectProgressRepository.findProjectIdsAfter(0L, Limit.of(2))).thenReturn(List.of(1L, 2L));
+        when(projectProgressRepository.findProjectIdsAfter(2L, Limit.of(2))).thenReturn(List.of(3L));
+        when(projectProgressRepository.findProjectIdsAfter(3L, Limit.of(2))).thenReturn(List.of());
+        when(projectProgressRepository.findForUpdate(anyLong()))
+                .thenAnswer(i -> Optional.of(emptyRow(i.getArgument(0))));
+        when(explanatoryNoteRepository.countByProjectIdGroupByStatus(anyLong())).thenReturn(List.of());
+        when(explanatoryNoteRepository.findFirstByProjectIdOrderByOrderNumberDesc(anyLong()))
+                .thenReturn(Optional.empty());
+        when(projectProgressRepository.save(any(ProjectProgress.class))).thenAnswer(i -> i.getArgument(0));
+
+        service.repair();
+
+        verify(projectProgressRepository).findForUpdate(1L);
+        verify(projectProgressRepository).findForUpdate(2L);
+        verify(projectProgressRepository).findForUpdate(3L);
+        verify(projectProgressRepository).deleteOrphans();
+    }
+
+    private void runTransactionsInline() {
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private static ProjectProgress emptyRow(Long projectId) {
+        return ProjectProgress.builder().projectId(projectId).build();
+    }
+
+    private static StatusCount statusCount(ItemStatus status, Long count) {
+        StatusCount row = mock(StatusCount.class);
+        when(row.getStatus()).thenReturn(status);
+        when(row.getCount()).thenReturn(count);
+        return row;
+    }
+
+    private static ItemState itemState(ItemStatus status) {
+        ItemState state = mock(ItemState.class);
+        when(state.getStatus()).thenReturn(status);
+        return state;
+    }
+
+}
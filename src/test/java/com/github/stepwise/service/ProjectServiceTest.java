@@ -7,9 +7,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -27,7 +29,6 @@ import org.springframework.mail.javamail.JavaMailSender;
 
 import com.github.stepwise.configuration.MailConfigurationProperties;
 import com.github.stepwise.entity.AcademicWork;
-import com.github.stepwise.entity.ExplanatoryNoteItem;
 import com.github.stepwise.entity.ItemStatus;
 import com.github.stepwise.entity.Project;
 import com.github.stepwise.entity.ProjectStatus;
@@ -37,8 +38,13 @@ import com.github.stepwise.entity.UserRole;
 import com.github.stepwise.entity.WorkTemplate;
 import com.github.stepwise.entity.WorkTemplateChapter;
 import com.github.stepwise.exception.NotFoundException;
+import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ExplanatoryNoteRepository.ItemRow;
+import com.github.stepwise.repository.ExplanatoryNoteRepository.StatusCount;
 import com.github.stepwise.repository.ProjectRepository;
+import com.github.stepwise.repository.ProjectRepository.ProjectRow;
 import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.web.dto.ProjectResponseDto;
 
 @ExtendWith(MockitoExtension.class)
 class ProjectServiceTest {
@@ -46,6 +52,8 @@ class ProjectServiceTest {
     @Mock
     private ProjectRepository projectRepository;
     @Mock
+    private ExplanatoryNoteRepository explanatoryNoteRepository;
+    @Mock
     private UserRepository userRepository;
     @Mock
     private JavaMailSender mailSender;
@@ -113,14 +121,18 @@ class ProjectServiceTest {
                 .build();
     }
 
-    private ExplanatoryNoteItem buildApprovedItem(Long id, int orderNumber, Project project) {
-        return ExplanatoryNoteItem.builder()
-                .id(id)
-                .status(ItemStatus.APPROVED)
-                .orderNumber(orderNumber)
-                .project(project)
-                .history(new ArrayList<>())
-                .build();
+    private static StatusCount statusCount(ItemStatus status, Long count) {
+        return new StatusCount() {
+            @Override
+            public ItemStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getCount() {
+                return count;
+            }
+        };
     }
 
     @Test
@@ -163,17 +175,18 @@ class ProjectServiceTest {
 
     @Test
     void getByProjectId_WhenProjectExists_ShouldReturnProject() {
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+        when(projectRepository.findWithItemsById(1L)).thenReturn(Optional.of(project));
 
         Project result = projectService.getByProjectId(1L);
 
         assertNotNull(result);
         assertEquals(1L, result.getId());
+        verify(explanatoryNoteRepository).fetchHistory(List.of(project));
     }
 
     @Test
     void getByProjectId_WhenProjectNotExists_ShouldThrowNotFoundException() {
-        when(projectRepository.findById(999L)).thenReturn(Optional.empty());
+        when(projectRepository.findWithItemsById(999L)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> projectService.getByProjectId(999L));
@@ -183,17 +196,18 @@ class ProjectServiceTest {
 
     @Test
     void getAllByWorkId_ShouldReturnProjects() {
-        when(projectRepository.findAllByAcademicWorkId(1L)).thenReturn(List.of(project));
+        when(projectRepository.findWithItemsByAcademicWorkId(1L)).thenReturn(List.of(project));
 
         List<Project> result = projectService.getAllByWorkId(1L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
+        verify(explanatoryNoteRepository).fetchHistory(List.of(project));
     }
 
     @Test
     void getAllByWorkIdAndStudentId_ShouldReturnProjects() {
-        when(projectRepository.findAllByAcademicWorkIdAndStudentId(1L, 1L)).thenReturn(List.of(project));
+        when(projectRepository.findWithItemsByAcademicWorkIdAndStudentId(1L, 1L)).thenReturn(List.of(project));
 
         List<Project> result = projectService.getAllByWorkIdAndStudentId(1L, 1L);
 
@@ -201,6 +215,36 @@ class ProjectServiceTest {
         assertEquals(1, result.size());
     }
 
+    @Test
+    void getOverviewByWorkId_ShouldGroupItemRowsByProject() {
+        ProjectRow withItems = projectRow(1L);
+        ProjectRow withoutItems = projectRow(2L);
+        ItemRow item = mock(ItemRow.class);
+        when(item.getProjectId()).thenReturn(1L);
+        when(item.getId()).thenReturn(10L);
+        when(item.getOrderNumber()).thenReturn(0);
+        when(item.getStatus()).thenReturn(ItemStatus.SUBMITTED);
+        when(item.getLatestFileName()).thenReturn("chapter.pdf");
+        when(projectRepository.findRowsByAcademicWorkId(1L)).thenReturn(List.of(withItems, withoutItems));
+        when(explanatoryNoteRepository.findRowsByAcademicWorkIdAndStatusNot(1L, ItemStatus.DRAFT))
+                .thenReturn(List.of(item));
+
+        List<ProjectResponseDto> result = projectService.getOverviewByWorkId(1L);
+
+        assertEquals(2, result.size());
+        assertEquals("student1", result.get(0).getOwner().getUsername());
+        assertEquals("chapter.pdf", result.get(0).getItems().getFirst().getLatestFileName());
+        assertTrue(result.get(1).getItems().isEmpty());
+    }
+
+    @Test
+    void getOverviewByWorkId_WhenWorkHasNoProjects_ShouldSkipItemQuery() {
+        when(projectRepository.findRowsByAcademicWorkId(1L)).thenReturn(List.of());
+
+        assertTrue(projectService.getOverviewByWorkId(1L).isEmpty());
+        verifyNoInteractions(explanatoryNoteRepository);
+    }
+
     @Test
     void approve_WhenAllItemsApproved_ShouldApproveProjectAndSendEmail() {
         Project testProject = Project.builder()
@@ -212,11 +256,9 @@ class ProjectServiceTest {
                 .items(new ArrayList<>())
                 .build();
 
-        testProject.setItems(List.of(
-                buildApprovedItem(1L, 0, testProject),
-                buildApprovedItem(2L, 1, testProject)));
-
         when(projectRepository.findById(1L)).thenReturn(Optional.of(testProject));
+        when(explanatoryNoteRepository.countByProjectIdGroupByStatus(1L))
+                .thenReturn(List.of(statusCount(ItemStatus.APPROVED, 2L)));
         when(projectRepository.save(any(Project.class))).thenReturn(testProject);
         when(userRepository.findById(1L)).thenReturn(Optional.of(student));
         doNothing().when(mailSender).send(any(SimpleMailMessage.class));
@@ -239,17 +281,10 @@ class ProjectServiceTest {
                 .items(new ArrayList<>())
                 .build();
 
-        testProject.setItems(List.of(
-                buildApprovedItem(1L, 0, testProject),
-                ExplanatoryNoteItem.builder()
-                        .id(2L)
-                        .status(ItemStatus.SUBMITTED)
-                        .orderNumber(1)
-                        .project(testProject)
-                        .history(new ArrayList<>())
-                        .build()));
-
         when(projectRepository.findById(1L)).thenReturn(Optional.of(testProject));
+        when(explanatoryNoteRepository.countByProjectIdGroupByStatus(1L)).thenReturn(List.of(
+                statusCount(ItemStatus.APPROVED, 1L),
+                statusCount(ItemStatus.SUBMITTED, 1L)));
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> projectService.approve(1L));
@@ -281,11 +316,9 @@ class ProjectServiceTest {
                 .items(new ArrayList<>())
                 .build();
 
-        testProject.setItems(List.of(
-                buildApprovedItem(1L, 0, testProject),
-                buildApprovedItem(2L, 1, testProject)));
-
         when(projectRepository.findById(1L)).thenReturn(Optional.of(testProject));
+        when(explanatoryNoteRepository.countByProjectIdGroupByStatus(1L))
+                .thenReturn(List.of(statusCount(ItemStatus.APPROVED, 2L)));
         when(projectRepository.save(any(Project.class))).thenReturn(testProject);
         when(userRepository.findById(1L)).thenReturn(Optional.empty());
 
@@ -305,6 +338,7 @@ class ProjectServiceTest {
                 .build();
 
         when(projectRepository.findById(1L)).thenReturn(Optional.of(testProject));
+        when(explanatoryNoteRepository.countByProjectIdGroupByStatus(1L)).thenReturn(List.of());
 
         assertThrows(IllegalArgumentException.class, () -> projectService.approve(1L));
         verify(projectRepository, never()).save(any(Project.class));
@@ -328,10 +362,11 @@ class ProjectServiceTest {
                 .id(2L)
                 .academicWork(work)
                 .student(student)
-                .items(List.of(buildApprovedItem(3L, 0, null)))
                 .build();
 
         when(projectRepository.findById(2L)).thenReturn(Optional.of(testProject));
+        when(explanatoryNoteRepository.countByProjectIdGroupByStatus(2L))
+                .thenReturn(List.of(statusCount(ItemStatus.APPROVED, 1L)));
 
         assertThrows(IllegalArgumentException.class, () -> projectService.approve(2L));
         verify(projectRepository, never()).save(any(Project.class));
@@ -361,4 +396,15 @@ class ProjectServiceTest {
         assertFalse(projectService.isProjectBelongsToTeacher(1L, 999L));
     }
 
+    private static ProjectRow projectRow(Long id) {
+        ProjectRow row = mock(ProjectRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getTitle()).thenReturn("Project " + id);
+        when(row.getStatus()).thenReturn(ProjectStatus.IN_PROGRESS);
+        when(row.getOwnerId()).thenReturn(1L);
+        when(row.getOwnerUsername()).thenReturn("student1");
+        when(row.getOwnerRole()).thenReturn(UserRole.STUDENT);
+        return row;
+    }
+
 }
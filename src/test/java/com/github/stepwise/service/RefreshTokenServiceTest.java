@@ -0,0 +1,121 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.entity.RefreshToken;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.exception.InvalidRefreshTokenException;
+import com.github.stepwise.repository.RefreshTokenRepository;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Spy
+    private JwtConfigurationProperties jwtConfig = new JwtConfigurationProperties();
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("student").role(UserRole.STUDENT).build();
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyHashOfToken() {
+        String rawToken = refreshTokenService.issue(user);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken stored = captor.getValue();
+
+        assertNotNull(rawToken);
+        assertNotEquals(rawToken, stored.getTokenHash());
+        assertEquals(64, stored.getTokenHash().length());
+        assertEquals(user, stored.getUser());
+        assertTrue(stored.getExpiresAt().isAfter(Instant.now()));
+        verify(refreshTokenRepository).deleteExpiredByUserId(eq(1L), any(Instant.class));
+    }
+
+    @Test
+    void rotate_ShouldRevokePresentedTokenAndIssueNewOne() {
+        RefreshToken stored = activeToken();
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(stored));
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("raw-token");
+
+        assertEquals(user, rotation.user());
+        assertNotNull(rotation.refreshToken());
+        assertNotEquals("raw-token", rotation.refreshToken());
+        assertNotNull(stored.getRevokedAt());
+        verify(refreshTokenRepository, times(2)).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_WithUnknownToken_ShouldThrow() {
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("unknown"));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_WithRevokedToken_ShouldRevokeWholeFamily() {
+        RefreshToken stored = activeToken();
+        stored.setRevokedAt(Instant.now().minusSeconds(10));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(stored));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("reused"));
+        verify(refreshTokenRepository).deleteAllByUserId(1L);
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void rotate_WithExpiredToken_ShouldDeleteItAndThrow() {
+        RefreshToken stored = activeToken();
+        stored.setExpiresAt(Instant.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.of(stored));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate("expired"));
+        verify(refreshTokenRepository).delete(stored);
+    }
+
+    @Test
+    void revokeAll_ShouldDeleteAllTokensOfUser() {
+        refreshTokenService.revokeAll(1L);
+
+        verify(refreshTokenRepository).deleteAllByUserId(1L);
+    }
+
+    private RefreshToken activeToken() {
+        return RefreshToken.builder()
+                .id(10L)
+                .tokenHash("hash")
+                .user(user)
+                .issuedAt(Instant.now().minusSeconds(60))
+                .expiresAt(Instant.now().plusSeconds(3600))
+                .build();
+    }
+
+}
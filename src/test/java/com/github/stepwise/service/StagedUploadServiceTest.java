@@ -0,0 +1,274 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.stepwise.configuration.MinioConfig;
+import com.github.stepwise.entity.ExplanatoryNoteItem;
+import com.github.stepwise.entity.ItemHistory;
+import com.github.stepwise.entity.ItemStatus;
+import com.github.stepwise.event.ExplanatoryFileStagedEvent;
+import com.github.stepwise.repository.ExplanatoryNoteRepository;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.repository.ItemHistoryRepository.StagedUpload;
+
+@ExtendWith(MockitoExtension.class)
+class StagedUploadServiceTest {
+
+    @Mock
+    private StorageService storageService;
+    @Mock
+    private ItemHistoryRepository itemHistoryRepository;
+    @Mock
+    private MinioConfig minioConfig;
+    @Mock
+    private ExtractedTextService extractedTextService;
+    @Mock
+    private ExplanatoryNoteRepository explanatoryNoteRepository;
+    @Mock
+    private ProjectProgressService projectProgressService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private StagedUploadService stagedUploadService;
+
+    private final ExplanatoryFileStagedEvent event = new ExplanatoryFileStagedEvent(4L, "staging/abc", null, 1L,
+            2L, 3L, "document.pdf");
+
+    @Test
+    void onFileStaged_ShouldFinalizeObjectAndClearMarker() throws Exception {
+        when(storageService.resolveExplanatoryObject(null, null, 1L, 2L, 3L, 4L, "document.pdf"))
+                .thenReturn("1/2/3/4/document.pdf");
+
+        stagedUploadService.onFileStaged(event);
+
+        InOrder order = inOrder(storageService, itemHistoryRepository);
+        order.verify(storageService).finalizeExplanatoryFile("staging/abc", 1L, 2L, 3L, 4L, "document.pdf");
+        order.verify(itemHistoryRepository).clearStagedObject(4L);
+        order.verify(storageService).removeObject("staging/abc");
+        verify(extractedTextService).extractLater(4L, "1/2/3/4/document.pdf");
+    }
+
+    @Test
+    void onFileStaged_WhenClearFails_ShouldKeepStagedObject() throws Exception {
+        doThrow(new RuntimeException("Connection lost")).when(itemHistoryRepository).clearStagedObject(4L);
+
+        stagedUploadService.onFileStaged(event);
+
+        verify(storageService, never()).removeObject(anyString());
+        verify(extractedTextService, never()).extractLater(anyLong(), any());
+    }
+
+    @Test
+    void onFileStaged_WhenFinalizeFails_ShouldKeepMarkerForReconciler() throws Exception {
+        doThrow(new RuntimeException("Copy failed")).when(storageService)
+                .finalizeExplanatoryFile(anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyString());
+
+        stagedUploadService.onFileStaged(event);
+
+        verify(itemHistoryRepository, never()).clearStagedObject(anyLong());
+        verify(extractedTextService, never()).extractLater(anyLong(), any());
+    }
+
+    @Test
+    void onFileStaged_ShouldStoreBlob_WhenDigestRecorded() throws Exception {
+        stagedUploadService.onFileStaged(new ExplanatoryFileStagedEvent(4L, "staging/abc", "9f86d08188", 1L, 2L, 3L,
+                "document.pdf"));
+
+        verify(storageService).storeBlob("staging/abc", "9f86d08188");
+        verify(storageService, never())
+                .finalizeExplanatoryFile(anyString(), anyLong(), anyLong(), anyLong(), anyLong(), anyString());
+        verify(itemHistoryRepository).clearStagedObject(4L);
+        verify(storageService).removeObject("staging/abc");
+    }
+
+    @Test
+    void reconcile_ShouldFinalizeStaleStagedUpload() throws Exception {
+        when(minioConfig.getStagingGracePeriod()).thenReturn(Duration.ofHours(1));
+        when(itemHistoryRepository.findStagedBefore(any())).thenReturn(List.of(stagedUpload(null)));
+        when(storageService.objectExists("staging/abc")).thenReturn(true);
+
+        stagedUploadService.reconcile();
+
+        InOrder order = inOrder(storageService, itemHistoryRepository);
+        order.verify(storageService).finalizeExplanatoryFile("staging/abc", 1L, 2L, 3L, 4L, "document.pdf");
+        order.verify(itemHistoryRepository).clearStagedObject(4L);
+        order.verify(storageService).removeObject("staging/abc");
+    }
+
+    @Test
+    void reconcile_ShouldClearMarker_WhenObjectAlreadyFinalized() throws Exception {
+        when(minioConfig.getStagingGracePeriod()).thenReturn(Duration.ofHours(1));
+        when(itemHistoryRepository.findStagedBefore(any())).thenReturn(List.of(stagedUpload(null)));
+        when(storageService.objectExists("staging/abc")).thenReturn(false);
+        when(storageService.explanatoryFileExists(1L, 2L, 3L, 4L, "document.pdf")).thenReturn(true);
+
+        stagedUploadService.reconcile();
+
+        verify(itemHistoryRepository).clearStagedObject(4L);
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
+
+    @Test
+    void reconcile_ShouldClearMarker_WhenBlobAlreadyStored() throws Exception {
+        when(minioConfig.getStagingGracePeriod()).thenReturn(Duration.ofHours(1));
+        when(itemHistoryRepository.findStagedBefore(any())).thenReturn(List.of(stagedUpload("9f86d08188")));
+        when(storageService.objectExists("staging/abc")).thenReturn(false);
+        when(storageService.blobObjectName("9f86d08188")).thenReturn("blobs/9f86d08188");
+        when(storageService.objectExists("blobs/9f86d08188")).thenReturn(true);
+
+        stagedUploadService.reconcile();
+
+        verify(itemHistoryRepository).clearStagedObject(4L);
+        verify(storageService, never()).explanatoryFileExists(anyLong(), anyLong(), anyLong(), anyLong(), anyString());
+    }
+
+    @Test
+    void reconcile_ShouldRemoveItem_WhenOrphanDraftCreatedIt() throws Exception {
+        ExplanatoryNoteItem item = item(ItemStatus.DRAFT);
+        ItemHistory orphan = history(item, null);
+        missingStagedUpload(orphan);
+        when(itemHistoryRepository.existsByItemIdAndIdGreaterThan(3L, 4L)).thenReturn(false);
+        when(itemHistoryRepository.countByItemId(3L)).thenReturn(1L);
+
+        stagedUploadService.reconcile();
+
+        verify(explanatoryNoteRepository).delete(item);
+        verify(projectProgressService).rebuild(2L);
+    }
+
+    @Test
+    void reconcile_ShouldReturnReworkedItemToRejected_WhenOrphanDraftMissing() throws Exception {
+        ExplanatoryNoteItem item = item(ItemStatus.DRAFT);
+        ItemHistory orphan = history(item, ItemStatus.REJECTED);
+        missingStagedUpload(orphan);
+        when(itemHistoryRepository.existsByItemIdAndIdGreaterThan(3L, 4L)).thenReturn(false);
+        when(itemHistoryRepository.countByItemId(3L)).thenReturn(3L);
+
+        stagedUploadService.reconcile();
+
+        verify(itemHistoryRepository).delete(orphan);
+        verify(explanatoryNoteRepository, never()).delete(any());
+        assertEquals(ItemStatus.REJECTED, item.getStatus());
+        verify(projectProgressService).rebuild(2L);
+    }
+
+    @Test
+    void reconcile_ShouldKeepItemStatus_WhenLaterEntryExists() throws Exception {
+        ExplanatoryNoteItem item = item(ItemStatus.DRAFT);
+        ItemHistory orphan = history(item, ItemStatus.REJECTED);
+        missingStagedUpload(orphan);
+        when(itemHistoryRepository.existsByItemIdAndIdGreaterThan(3L, 4L)).thenReturn(true);
+
+        stagedUploadService.reconcile();
+
+        verify(itemHistoryRepository).delete(orphan);
+        assertEquals(ItemStatus.DRAFT, item.getStatus());
+        verify(projectProgressService).rebuild(2L);
+    }
+
+    @Test
+    void reconcile_ShouldRemoveOrphanStagedObjects() throws Exception {
+        when(minioConfig.getStagingGracePeriod()).thenReturn(Duration.ofHours(1));
+        when(itemHistoryRepository.findStagedBefore(any())).thenReturn(List.of());
+        when(storageService.listStagedObjects(any())).thenReturn(List.of("staging/orphan", "staging/pending"));
+        when(itemHistoryRepository.existsByStagedObject("staging/orphan")).thenReturn(false);
+        when(itemHistoryRepository.existsByStagedObject("staging/pending")).thenReturn(true);
+
+        stagedUploadService.reconcile();
+
+        verify(storageService).removeObject("staging/orphan");
+        verify(storageService, never()).removeObject("staging/pending");
+    }
+
+    private void missingStagedUpload(ItemHistory orphan) throws Exception {
+        when(minioConfig.getStagingGracePeriod()).thenReturn(Duration.ofHours(1));
+        when(itemHistoryRepository.findStagedBefore(any())).thenReturn(List.of(stagedUpload(null)));
+        when(storageService.objectExists("staging/abc")).thenReturn(false);
+        when(storageService.explanatoryFileExists(1L, 2L, 3L, 4L, "document.pdf")).thenReturn(false);
+        when(itemHistoryRepository.findById(4L)).thenReturn(Optional.of(orphan));
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private static ExplanatoryNoteItem item(ItemStatus status) {
+        return ExplanatoryNoteItem.builder().id(3L).orderNumber(0).status(status).history(new ArrayList<>()).build();
+    }
+
+    private static ItemHistory history(ExplanatoryNoteItem item, ItemStatus previousStatus) {
+        return ItemHistory.builder()
+                .id(4L)
+                .item(item)
+                .previousStatus(previousStatus)
+                .newStatus(ItemStatus.DRAFT)
+                .fileName("document.pdf")
+                .stagedObject("staging/abc")
+                .build();
+    }
+
+    private static StagedUpload stagedUpload(String contentDigest) {
+        return new StagedUpload() {
+            @Override
+            public Long getHistoryId() {
+                return 4L;
+            }
+
+            @Override
+            public String getStagedObject() {
+                return "staging/abc";
+            }
+
+            @Override
+            public String getContentDigest() {
+                return contentDigest;
+            }
+
+            @Override
+            public String getFileName() {
+                return "document.pdf";
+            }
+
+            @Override
+            public Long getItemId() {
+                return 3L;
+            }
+
+            @Override
+            public Long getProjectId() {
+                return 2L;
+            }
+
+            @Override
+            public Long getStudentId() {
+                return 1L;
+            }
+        };
+    }
+
+}
@@ -4,8 +4,15 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,14 +20,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.github.stepwise.configuration.MinioConfig;
+import com.github.stepwise.service.StorageService.BatchResult;
+import com.github.stepwise.service.StorageService.StagedFile;
 
 import io.minio.BucketExistsArgs;
+import io.minio.CopyObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.GetPresignedObjectUrlArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.http.Method;
+import io.minio.messages.DeleteError;
 
 @ExtendWith(MockitoExtension.class)
 class StorageServiceTest {
@@ -42,7 +60,7 @@ class StorageServiceTest {
 
     @BeforeEach
     void setUp() {
-        when(minioConfig.getBucketNames()).thenReturn(List.of("works-bucket", "other-bucket"));
+        lenient().when(minioConfig.getBucketNames()).thenReturn(List.of("works-bucket", "other-bucket"));
     }
 
     @Test
@@ -77,108 +95,127 @@ class StorageServiceTest {
     }
 
     @Test
-    void uploadExplanatoryFile_ShouldUploadFileWithCorrectPath() throws Exception {
-        String worksBucketName = "works-bucket";
-        when(minioConfig.getBucketNames()).thenReturn(List.of(worksBucketName));
-        when(multipartFile.getOriginalFilename()).thenReturn("document.pdf");
+    void stageExplanatoryFile_ShouldUploadUnderStagingPrefix() throws Exception {
         when(multipartFile.getInputStream()).thenReturn(inputStream);
         when(multipartFile.getSize()).thenReturn(1024L);
         when(multipartFile.getContentType()).thenReturn("application/pdf");
 
-        storageService.uploadExplanatoryFile(1L, 2L, 3L, 4L, multipartFile);
+        StagedFile staged = storageService.stageExplanatoryFile(multipartFile);
 
-        verify(minioClient).putObject(argThat(putObjectArgs -> {
-            try {
-                return putObjectArgs.bucket().equals(worksBucketName) &&
-                        putObjectArgs.object().equals("1/2/3/4/document.pdf");
-            } catch (Exception e) {
-                return false;
-            }
-        }));
+        assertTrue(staged.objectName().startsWith(StorageService.STAGING_PREFIX));
+        assertNull(staged.contentDigest());
+        verify(minioClient).putObject(argThat(putObjectArgs -> putObjectArgs.bucket().equals("works-bucket")
+                && putObjectArgs.object().equals(staged.objectName())));
     }
 
     @Test
-    void uploadExplanatoryFile_WhenFileUploadFails_ShouldPropagateException() throws Exception {
-        String worksBucketName = "works-bucket";
-        when(minioConfig.getBucketNames()).thenReturn(List.of(worksBucketName));
-        when(multipartFile.getOriginalFilename()).thenReturn("document.pdf");
-        when(multipartFile.getInputStream()).thenReturn(inputStream);
-        when(multipartFile.getSize()).thenReturn(1024L);
-        when(multipartFile.getContentType()).thenReturn("application/pdf");
-
-        doThrow(new RuntimeException("Upload failed")).when(minioClient).putObject(any(PutObjectArgs.class));
+    void stageExplanatoryStream_ShouldHashContent_WhenContentAddressed() throws Exception {
+        when(minioConfig.isContentAddressed()).thenReturn(true);
+        when(minioConfig.getStreamPartSize()).thenReturn(DataSize.ofMegabytes(5));
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+            invocation.<PutObjectArgs>getArgument(0).stream().readAllBytes();
+            return null;
+        });
+
+        StagedFile staged = storageService.stageExplanatoryStream(
+                new ByteArrayInputStream("test".getBytes(StandardCharsets.UTF_8)), "application/pdf");
+
+        assertEquals("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08", staged.contentDigest());
+    }
 
-        Exception exception = assertThrows(Exception.class,
-                () -> storageService.uploadExplanatoryFile(1L, 2L, 3L, 4L, multipartFile));
+    @Test
+    void storeBlob_ShouldSkipCopy_WhenBlobAlreadyStored() throws Exception {
+        storageService.storeBlob("staging/abc", "9f86d08188");
 
-        assertTrue(exception.getMessage().contains("Upload failed"));
+        verify(minioClient).statObject(argThat(statObjectArgs -> statObjectArgs.object().equals("blobs/9f86d08188")));
+        verify(minioClient, never()).copyObject(any(CopyObjectArgs.class));
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
     }
 
     @Test
-    void uploadExplanatoryFile_WithNullFilename_ShouldHandleGracefully() throws Exception {
-        String worksBucketName = "works-bucket";
-        when(minioConfig.getBucketNames()).thenReturn(List.of(worksBucketName));
-        when(multipartFile.getOriginalFilename()).thenReturn(null);
-        when(multipartFile.getInputStream()).thenReturn(inputStream);
-        when(multipartFile.getSize()).thenReturn(1024L);
-        when(multipartFile.getContentType()).thenReturn("application/pdf");
+    void resolveExplanatoryObject_ShouldPreferStagedThenBlobThenLegacyPath() {
+        assertEquals("staging/abc", storageService.resolveExplanatoryObject("staging/abc", "9f86", 1L, 2L, 3L, 4L,
+                "document.pdf"));
+        assertEquals("blobs/9f86", storageService.resolveExplanatoryObject(null, "9f86", 1L, 2L, 3L, 4L,
+                "document.pdf"));
+        assertEquals("1/2/3/4/document.pdf", storageService.resolveExplanatoryObject(null, null, 1L, 2L, 3L, 4L,
+                "document.pdf"));
+    }
 
-        storageService.uploadExplanatoryFile(1L, 2L, 3L, 4L, multipartFile);
+    @Test
+    void finalizeExplanatoryFile_ShouldCopyToFinalPathAndKeepStagedObject() throws Exception {
+        storageService.finalizeExplanatoryFile("staging/abc", 1L, 2L, 3L, 4L, "document.pdf");
 
-        verify(minioClient).putObject(argThat(putObjectArgs -> {
-            try {
-                return putObjectArgs.object().equals("1/2/3/4/null");
-            } catch (Exception e) {
-                return false;
-            }
-        }));
+        verify(minioClient).copyObject(argThat(copyObjectArgs -> copyObjectArgs.object().equals("1/2/3/4/document.pdf")
+                && copyObjectArgs.source().object().equals("staging/abc")));
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
     }
 
     @Test
-    void downloadExplanatoryFile_WhenFileDownloadFails_ShouldPropagateException() throws Exception {
-        String worksBucketName = "works-bucket";
-        String filename = "document.pdf";
-        when(minioConfig.getBucketNames()).thenReturn(List.of(worksBucketName));
+    void finalizeExplanatoryFile_WhenCopyFails_ShouldKeepStagedObject() throws Exception {
+        doThrow(new RuntimeException("Copy failed")).when(minioClient).copyObject(any(CopyObjectArgs.class));
+
+        assertThrows(RuntimeException.class,
+                () -> storageService.finalizeExplanatoryFile("staging/abc", 1L, 2L, 3L, 4L, "document.pdf"));
+
+        verify(minioClient, never()).removeObject(any(RemoveObjectArgs.class));
+    }
 
-        doThrow(new RuntimeException("File not found")).when(minioClient).getObject(any());
+    @Test
+    void presignObject_ShouldSignGetWithConfiguredExpiryAndDisposition() throws Exception {
+        when(minioConfig.getPresignedUrlExpiry()).thenReturn(Duration.ofMinutes(5));
+        when(minioClient.getPresignedObjectUrl(any(GetPresignedObjectUrlArgs.class))).thenReturn("http://signed");
 
-        Exception exception = assertThrows(Exception.class,
-                () -> storageService.downloadExplanatoryFile(1L, 2L, 3L, 4L, filename));
+        assertEquals("http://signed", storageService.presignObject("1/2/3/4/отчёт 1.pdf", "отчёт 1.pdf"));
 
-        assertTrue(exception.getMessage().contains("File not found"));
+        verify(minioClient).getPresignedObjectUrl(argThat(args -> args.method() == Method.GET
+                && args.object().equals("1/2/3/4/отчёт 1.pdf")
+                && args.expiry() == 300
+                && args.extraQueryParams().get("response-content-disposition")
+                        .contains("attachment; filename*=UTF-8''%D0%BE%D1%82%D1%87%D1%91%D1%82%201.pdf")));
     }
 
     @Test
-    void uploadExplanatoryFile_ShouldUseFirstBucketFromConfig() throws Exception {
-        List<String> bucketNames = List.of("primary-bucket", "secondary-bucket");
-        when(minioConfig.getBucketNames()).thenReturn(bucketNames);
-        when(multipartFile.getOriginalFilename()).thenReturn("test.txt");
-        when(multipartFile.getInputStream()).thenReturn(inputStream);
-        when(multipartFile.getSize()).thenReturn(512L);
-        when(multipartFile.getContentType()).thenReturn("text/plain");
-
-        storageService.uploadExplanatoryFile(1L, 2L, 3L, 4L, multipartFile);
-
-        verify(minioClient).putObject(argThat(putObjectArgs -> {
-            try {
-                return putObjectArgs.bucket().equals("primary-bucket");
-            } catch (Exception e) {
-                return false;
-            }
-        }));
+    void getObjects_ShouldReportFailuresPerObject() throws Exception {
+        when(minioConfig.getMaxInFlight()).thenReturn(2);
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        storageService.init();
+
+        GetObjectResponse present = mock(GetObjectResponse.class);
+        when(minioClient.getObject(argThat(args -> args != null && args.object().equals("a")))).thenReturn(present);
+        when(minioClient.getObject(argThat(args -> args != null && args.object().equals("b"))))
+                .thenThrow(new IllegalStateException("NoSuchKey"));
+
+        Map<String, BatchResult<InputStream>> results;
+        try (Stream<BatchResult<InputStream>> stream = storageService.getObjects(List.of("a", "b"))) {
+            results = stream.collect(Collectors.toMap(BatchResult::objectName, Function.identity()));
+        }
+
+        assertTrue(results.get("a").isSuccess());
+        assertFalse(results.get("b").isSuccess());
+        assertEquals("NoSuchKey", results.get("b").error().getMessage());
+        verify(present).close();
     }
 
     @Test
-    void uploadExplanatoryFile_ShouldCallPutObjectWithCorrectParameters() throws Exception {
-        String worksBucketName = "works-bucket";
-        when(minioConfig.getBucketNames()).thenReturn(List.of(worksBucketName));
-        when(multipartFile.getOriginalFilename()).thenReturn("test.pdf");
-        when(multipartFile.getInputStream()).thenReturn(inputStream);
-        when(multipartFile.getSize()).thenReturn(2048L);
-        when(multipartFile.getContentType()).thenReturn("application/pdf");
+    void removeObjects_ShouldReportDeleteErrorsPerObject() throws Exception {
+        when(minioConfig.getMaxInFlight()).thenReturn(2);
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        storageService.init();
+
+        DeleteError error = mock(DeleteError.class);
+        when(error.objectName()).thenReturn("b");
+        when(error.code()).thenReturn("AccessDenied");
+        when(error.message()).thenReturn("Access Denied");
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of(new Result<>(error)));
 
-        storageService.uploadExplanatoryFile(1L, 2L, 3L, 4L, multipartFile);
+        Map<String, BatchResult<String>> results;
+        try (Stream<BatchResult<String>> stream = storageService.removeObjects(List.of("a", "b"))) {
+            results = stream.collect(Collectors.toMap(BatchResult::objectName, Function.identity()));
+        }
 
-        verify(minioClient).putObject(any(PutObjectArgs.class));
+        assertTrue(results.get("a").isSuccess());
+        assertEquals("AccessDenied: Access Denied", results.get("b").error().getMessage());
+        verify(minioClient).removeObjects(any(RemoveObjectsArgs.class));
     }
 }
@@ -0,0 +1,215 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.exception.NotFoundException;
+import com.github.stepwise.repository.AcademicWorkRepository;
+import com.github.stepwise.repository.ItemHistoryRepository;
+import com.github.stepwise.repository.ItemHistoryRepository.ExportFile;
+import com.github.stepwise.service.StorageService.BatchResult;
+
+@ExtendWith(MockitoExtension.class)
+class SubmissionExportServiceTest {
+
+    @Mock
+    private AcademicWorkRepository academicWorkRepository;
+    @Mock
+    private ItemHistoryRepository itemHistoryRepository;
+    @Mock
+    private StorageService storageService;
+
+    @InjectMocks
+    private SubmissionExportService submissionExportService;
+
+    @Test
+    void getExportFiles_ShouldThrow_WhenWorkNotFound() {
+        when(academicWorkRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class,
+                () -> submissionExportService.getExportFiles(1L, false, 2L, UserRole.ADMIN));
+    }
+
+    @Test
+    void getExportFiles_ShouldThrow_WhenTeacherDoesNotOwnWork() {
+        when(academicWorkRepository.existsById(1L)).thenReturn(true);
+        when(academicWorkRepository.existsByIdAndWorkTemplateTeacherId(1L, 2L)).thenReturn(false);
+
+        assertThrows(AccessDeniedException.class,
+                () -> submissionExportService.getExportFiles(1L, false, 2L, UserRole.TEACHER));
+        verify(itemHistoryRepository, never()).findExportFiles(1L, false);
+    }
+
+    @Test
+    void getExportFiles_ShouldReturnFiles_ForAdmin() {
+        List<ExportFile> files = List.of(exportFile(10L, "a.pdf", null, 0, "Ivanov", "Ivan"));
+        when(academicWorkRepository.existsById(1L)).thenReturn(true);
+        when(itemHistoryRepository.findExportFiles(1L, true)).thenReturn(files);
+
+        assertEquals(files, submissionExportService.getExportFiles(1L, true, 2L, UserRole.ADMIN));
+    }
+
+    @Test
+    void writeZip_ShouldStreamEveryFileIntoArchive() throws Exception {
+        ExportFile first = exportFile(10L, "intro.pdf", null, 0, "Ivanov", "Ivan");
+        ExportFile second = exportFile(11L, "chapter.docx", "staging/abc", 1, null, null);
+
+        when(storageService.resolveExplanatoryObject(null, null, 1L, 5L, 100L, 10L, "intro.pdf"))
+                .thenReturn("1/5/100/10/intro.pdf");
+        when(storageService.resolveExplanatoryObject("staging/abc", null, 1L, 5L, 100L, 11L, "chapter.docx"))
+                .thenReturn("staging/abc");
+        when(storageService.getObjects(List.of("1/5/100/10/intro.pdf", "staging/abc"))).thenReturn(Stream.of(
+                BatchResult.succeeded("staging/abc", stream("chapter")),
+                BatchResult.succeeded("1/5/100/10/intro.pdf", stream("intro"))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        submissionExportService.writeZip(List.of(first, second), false, out);
+
+        Map<String, String> entries = readZip(out.toByteArray());
+        assertEquals(Map.of(
+                "Ivanov_Ivan_5/1_intro.pdf", "intro",
+                "student_5/2_chapter.docx", "chapter"), entries);
+    }
+
+    @Test
+    void writeZip_ShouldListMissingFilesInErrorsEntry() throws Exception {
+        ExportFile present = exportFile(10L, "intro.pdf", "staging/present", 0, "Ivanov", "Ivan");
+        ExportFile missing = exportFile(11L, "gone.pdf", "staging/missing", 1, "Ivanov", "Ivan");
+
+        when(storageService.resolveExplanatoryObject("staging/present", null, 1L, 5L, 100L, 10L, "intro.pdf"))
+                .thenReturn("staging/present");
+        when(storageService.resolveExplanatoryObject("staging/missing", null, 1L, 5L, 100L, 11L, "gone.pdf"))
+                .thenReturn("staging/missing");
+
+        when(storageService.getObjects(List.of("staging/present", "staging/missing"))).thenReturn(Stream.of(
+                BatchResult.succeeded("staging/present", stream("intro")),
+                BatchResult.failed("staging/missing", new IllegalStateException("NoSuchKey"))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        submissionExportService.writeZip(List.of(present, missing), true, out);
+
+        Map<String, String> entries = readZip(out.toByteArray());
+        assertEquals("intro", entries.get("Ivanov_Ivan_5/1_10_intro.pdf"));
+        assertEquals("Ivanov_Ivan_5/2_11_gone.pdf: NoSuchKey", entries.get(SubmissionExportService.ERRORS_ENTRY));
+    }
+
+    @Test
+    void writeZip_ShouldWriteEveryEntry_WhenVersionsShareBlob() throws Exception {
+        ExportFile first = exportFile(10L, "intro.pdf", null, 0, "Ivanov", "Ivan");
+        ExportFile retry = exportFile(11L, "intro.pdf", null, 0, "Ivanov", "Ivan");
+
+        when(storageService.resolveExplanatoryObject(isNull(), isNull(), anyLong(), anyLong(), anyLong(), anyLong(),
+                anyString())).thenReturn("blobs/9f86d08188");
+        when(storageService.getObjects(List.of("blobs/9f86d08188")))
+                .thenReturn(Stream.of(BatchResult.succeeded("blobs/9f86d08188", stream("intro"))));
+        when(storageService.downloadObject("blobs/9f86d08188")).thenReturn(stream("intro"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        submissionExportService.writeZip(List.of(first, retry), true, out);
+
+        assertEquals(Map.of(
+                "Ivanov_Ivan_5/1_10_intro.pdf", "intro",
+                "Ivanov_Ivan_5/1_11_intro.pdf", "intro"), readZip(out.toByteArray()));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> readZip(byte[] archive) throws Exception {
+        Map<String, String> entries = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        return entries;
+    }
+
+    private static ExportFile exportFile(Long historyId, String fileName, String stagedObject, int orderNumber,
+            String lastName, String firstName) {
+        return new ExportFile() {
+            @Override
+            public Long getHistoryId() {
+                return historyId;
+            }
+
+            @Override
+            public String getFileName() {
+                return fileName;
+            }
+
+            @Override
+            public String getStagedObject() {
+                return stagedObject;
+            }
+
+            @Override
+            public String getContentDigest() {
+                return null;
+            }
+
+            @Override
+            public Long getItemId() {
+                return 100L;
+            }
+
+            @Override
+            public Integer getOrderNumber() {
+                return orderNumber;
+            }
+
+            @Override
+            public Long getProjectId() {
+                return 5L;
+            }
+
+            @Override
+            public Long getStudentId() {
+                return 1L;
+            }
+
+            @Override
+            public String getUsername() {
+                return "student";
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+        };
+    }
+
+}
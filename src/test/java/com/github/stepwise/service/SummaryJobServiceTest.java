@@ -0,0 +1,170 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.github.stepwise.configuration.SummaryConfig;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.exception.NotFoundException;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+import com.github.stepwise.service.SummaryJobService.Status;
+import com.github.stepwise.service.SummaryJobService.SummaryJob;
+
+import chat.giga.http.client.HttpClientException;
+
+@ExtendWith(MockitoExtension.class)
+class SummaryJobServiceTest {
+
+    @Mock
+    private ItemSummaryService itemSummaryService;
+    @Mock
+    private ExplanatoryNoteItemService explanatoryNoteItemService;
+
+    private SummaryJobService summaryJobService;
+
+    private final ItemFile file = new ItemFile(10L, "report.pdf", "1/2/3/10/report.pdf", Instant.now());
+
+    @BeforeEach
+    void setUp() {
+        SummaryConfig summaryConfig = new SummaryConfig();
+        summaryConfig.setWorkers(1);
+        summaryConfig.setQueueCapacity(1);
+        summaryConfig.setInitialBackoff(Duration.ofMillis(10));
+        summaryJobService = new SummaryJobService(itemSummaryService, explanatoryNoteItemService, summaryConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        summaryJobService.shutdown();
+    }
+
+    @Test
+    void submit_ShouldCompleteImmediately_WhenSummaryStored() {
+        when(itemSummaryService.findSummary(10L)).thenReturn(Optional.of("stored"));
+
+        SummaryJob job = summaryJobService.submit(3L, file);
+
+        assertEquals(Status.COMPLETED, job.getStatus());
+        assertEquals("stored", job.getSummary());
+        when(explanatoryNoteItemService.canReadItem(3L, 7L, UserRole.TEACHER)).thenReturn(true);
+        assertSame(job, summaryJobService.getJob(job.getId(), 7L, UserRole.TEACHER));
+        verify(itemSummaryService, never()).getSummary(any(), any());
+    }
+
+    @Test
+    void submit_ShouldRunJobOnWorkerAndNotifySubscribers() throws Exception {
+        when(itemSummaryService.findSummary(10L)).thenReturn(Optional.empty());
+        when(itemSummaryService.getSummary(3L, file)).thenReturn("fresh");
+
+        SummaryJob job = summaryJobService.submit(3L, file);
+        List<Status> statuses = awaitTerminal(job);
+
+        assertEquals(Status.COMPLETED, statuses.getLast());
+        assertEquals("fresh", job.getSummary());
+        assertEquals(1, job.getAttempts());
+    }
+
+    @Test
+    void submit_ShouldReuseActiveJob_ForSameHistoryEntry() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(itemSummaryService.findSummary(10L)).thenReturn(Optional.empty());
+        when(itemSummaryService.getSummary(3L, file)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "fresh";
+        });
+
+        SummaryJob first = summaryJobService.submit(3L, file);
+        SummaryJob second = summaryJobService.submit(3L, file);
+        release.countDown();
+
+        assertSame(first, second);
+        awaitTerminal(first);
+        verify(itemSummaryService, times(1)).getSummary(3L, file);
+    }
+
+    @Test
+    void run_ShouldRetryWithBackoff_WhenGigaChatRequestFails() throws Exception {
+        when(itemSummaryService.findSummary(10L)).thenReturn(Optional.empty());
+        when(itemSummaryService.getSummary(3L, file))
+                .thenThrow(new RuntimeException("Ошибка при получении данных от GigaChat",
+                        mock(HttpClientException.class)))
+                .thenReturn("fresh");
+
+        SummaryJob job = summaryJobService.submit(3L, file);
+        List<Status> statuses = awaitTerminal(job);
+
+        assertTrue(statuses.contains(Status.RETRYING));
+        assertEquals(Status.COMPLETED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+    }
+
+    @Test
+    void run_ShouldFailWithoutRetry_WhenErrorIsNotTransient() throws Exception {
+        when(itemSummaryService.findSummary(10L)).thenReturn(Optional.empty());
+        when(itemSummaryService.getSummary(3L, file))
+                .thenThrow(new RuntimeException("Cannot extract text from PDF: broken"));
+
+        SummaryJob job = summaryJobService.submit(3L, file);
+        awaitTerminal(job);
+
+        assertEquals(Status.FAILED, job.getStatus());
+        assertEquals("Cannot extract text from PDF: broken", job.getError());
+        assertEquals(1, job.getAttempts());
+    }
+
+    @Test
+    void getJob_ShouldThrow_WhenUnknown() {
+        assertThrows(NotFoundException.class, () -> summaryJobService.getJob("missing", 7L, UserRole.TEACHER));
+    }
+
+    @Test
+    void getJob_ShouldHideJob_OfItemTheUserCannotRead() {
+        when(itemSummaryService.findSummary(10L)).thenReturn(Optional.of("stored"));
+        when(explanatoryNoteItemService.canReadItem(3L, 8L, UserRole.TEACHER)).thenReturn(false);
+
+        SummaryJob job = summaryJobService.submit(3L, file);
+
+        assertThrows(NotFoundException.class, () -> summaryJobService.getJob(job.getId(), 8L, UserRole.TEACHER));
+        assertThrows(NotFoundException.class,
+                () -> summaryJobService.subscribe(job.getId(), 8L, UserRole.TEACHER, update -> {
+                }));
+    }
+
+    private List<Status> awaitTerminal(SummaryJob job) throws InterruptedException {
+        List<Status> statuses = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        when(explanatoryNoteItemService.canReadItem(job.getItemId(), 7L, UserRole.TEACHER)).thenReturn(true);
+        summaryJobService.subscribe(job.getId(), 7L, UserRole.TEACHER, update -> {
+            statuses.add(update.getStatus());
+            if (update.getStatus().isTerminal()) {
+                done.countDown();
+            }
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return statuses;
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.github.stepwise.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.github.stepwise.configuration.SummaryConfig;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.event.ItemSubmittedEvent;
+import com.github.stepwise.exception.NotFoundException;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+import com.github.stepwise.service.SummaryJobService.Status;
+import com.github.stepwise.service.SummaryJobService.SummaryJob;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class SummaryPrecomputeServiceTest {
+
+    @Mock
+    private ExplanatoryNoteItemService explanatoryNoteItemService;
+    @Mock
+    private SummaryJobService summaryJobService;
+    @Mock
+    private GigaChatService gigaChatService;
+
+    private final SummaryConfig summaryConfig = new SummaryConfig();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ItemSubmittedEvent event = new ItemSubmittedEvent(3L, 1L, 2L);
+
+    private final ItemFile file = new ItemFile(10L, "report.pdf", "1/2/3/10/report.pdf", Instant.now());
+
+    @BeforeEach
+    void setUp() {
+        summaryConfig.getPrecompute().setMaxConcurrent(1);
+    }
+
+    @Test
+    void onItemSubmitted_ShouldHoldPermitUntilJobFinishes() {
+        SummaryPrecomputeService service = newService();
+        SummaryJob job = job(Status.QUEUED);
+        when(explanatoryNoteItemService.getItemFileMetadata(1L, UserRole.STUDENT, 2L, 3L, null)).thenReturn(file);
+        when(summaryJobService.submit(3L, file)).thenReturn(job);
+
+        service.onItemSubmitted(event);
+        service.onItemSubmitted(event);
+
+        verify(summaryJobService, times(1)).submit(3L, file);
+        assertEquals(1.0, outcome("skipped_busy"));
+
+        finish(job);
+        service.onItemSubmitted(event);
+
+        verify(summaryJobService, times(2)).submit(3L, file);
+    }
+
+    @Test
+    void onItemSubmitted_ShouldSkip_WhenTodaysGigaChatCallsReachBudget() {
+        summaryConfig.getPrecompute().setDailyBudget(10);
+        SummaryPrecomputeService service = newService();
+        SummaryJob job = job(Status.QUEUED);
+        when(explanatoryNoteItemService.getItemFileMetadata(1L, UserRole.STUDENT, 2L, 3L, null)).thenReturn(file);
+        when(summaryJobService.submit(3L, file)).thenReturn(job);
+        when(gigaChatService.getCallsToday()).thenReturn(9, 10);
+
+        service.onItemSubmitted(event);
+        finish(job);
+        service.onItemSubmitted(event);
+
+        verify(summaryJobService, times(1)).submit(3L, file);
+        assertEquals(1.0, outcome("skipped_budget"));
+    }
+
+    @Test
+    void onItemSubmitted_ShouldReleasePermit_WhenSummaryAlreadyStored() {
+        SummaryPrecomputeService service = newService();
+        SummaryJob job = job(Status.COMPLETED);
+        when(explanatoryNoteItemService.getItemFileMetadata(1L, UserRole.STUDENT, 2L, 3L, null)).thenReturn(file);
+        when(summaryJobService.submit(3L, file)).thenReturn(job);
+
+        service.onItemSubmitted(event);
+        service.onItemSubmitted(event);
+
+        verify(summaryJobService, times(2)).submit(3L, file);
+        assertEquals(2.0, outcome("already_stored"));
+    }
+
+    @Test
+    void onItemSubmitted_ShouldReleasePermit_WhenItemHasNoFile() {
+        SummaryPrecomputeService service = newService();
+        when(explanatoryNoteItemService.getItemFileMetadata(1L, UserRole.STUDENT, 2L, 3L, null))
+                .thenThrow(new NotFoundException("No file found for item: 3"));
+
+        service.onItemSubmitted(event);
+        service.onItemSubmitted(event);
+
+        assertEquals(2.0, outcome("failed"));
+    }
+
+    @Test
+    void onItemSubmitted_ShouldDoNothing_WhenDisabled() {
+        summaryConfig.getPrecompute().setEnabled(false);
+
+        newService().onItemSubmitted(event);
+
+        verifyNoInteractions(explanatoryNoteItemService, summaryJobService, gigaChatService);
+    }
+
+    private SummaryPrecomputeService newService() {
+        return new SummaryPrecomputeService(explanatoryNoteItemService, summaryJobService, gigaChatService,
+                summaryConfig, meterRegistry);
+    }
+
+    private static SummaryJob job(Status status) {
+        SummaryJob job = mock(SummaryJob.class);
+        when(job.getStatus()).thenReturn(status);
+        if (status != Status.COMPLETED) {
+            when(job.getId()).thenReturn("job-1");
+        }
+        return job;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void finish(SummaryJob job) {
+        ArgumentCaptor<Consumer<SummaryJob>> listener = ArgumentCaptor.forClass(Consumer.class);
+        verify(summaryJobService).subscribe(eq("job-1"), eq(1L), eq(UserRole.STUDENT), listener.capture());
+        when(job.getStatus()).thenReturn(Status.COMPLETED);
+        listener.getValue().accept(job);
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("summary.precompute").tag("outcome", outcome).counter().count();
+    }
+
+}
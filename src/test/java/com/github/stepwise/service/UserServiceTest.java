@@ -24,6 +24,7 @@ import com.github.stepwise.entity.UserRole;
 import com.github.stepwise.exception.NotFoundException;
 import com.github.stepwise.repository.StudyGroupRepository;
 import com.github.stepwise.repository.UserRepository;
+import com.github.stepwise.security.PrincipalCache;
 import com.github.stepwise.web.dto.ProfileDto;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +36,12 @@ class UserServiceTest {
     @Mock
     private StudyGroupRepository studyGroupRepository;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
     @InjectMocks
     private UserService userService;
 
@@ -133,6 +140,19 @@ class UserServiceTest {
         verify(userRepository, never()).findByRole(any(), any());
     }
 
+    @Test
+    void getStudents_WithSearch_ShouldUseTrigramSearch_WhenIndexReady() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<User> studentPage = new PageImpl<>(List.of(student), pageable, 1);
+        when(userSearchIndex.isReady()).thenReturn(true);
+        when(userRepository.searchByTrigram("john", "STUDENT", pageable)).thenReturn(studentPage);
+
+        Page<User> result = userService.getStudents(" john ", pageable);
+
+        assertEquals(1, result.getTotalElements());
+        verify(userRepository, never()).findByUsernameOrFirstNameOrLastName(any(), any(), any());
+    }
+
     @Test
     void getTeachers_WithoutSearch_ShouldReturnAllTeachers() {
         Pageable pageable = PageRequest.of(0, 10);
@@ -160,6 +180,18 @@ class UserServiceTest {
         verify(userRepository).findByUsernameOrFirstNameOrLastName(search, UserRole.TEACHER, pageable);
     }
 
+    @Test
+    void getTeachers_WithSearch_ShouldUseTrigramSearch_WhenIndexReady() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<User> teacherPage = new PageImpl<>(List.of(teacher), pageable, 1);
+        when(userSearchIndex.isReady()).thenReturn(true);
+        when(userRepository.searchByTrigram("teacher", "TEACHER", pageable)).thenReturn(teacherPage);
+
+        Page<User> result = userService.getTeachers("teacher", pageable);
+
+        assertEquals("teacher1", result.getContent().get(0).getUsername());
+    }
+
     @Test
     void getStudentsByGroupId_WhenGroupExists_ShouldReturnStudents() {
         when(studyGroupRepository.existsById(1L)).thenReturn(true);
@@ -230,6 +262,7 @@ class UserServiceTest {
 
         verify(userRepository).findById(1L);
         verify(userRepository).save(student);
+        verify(principalCache).evictAfterCommit("student1");
     }
 
     @Test
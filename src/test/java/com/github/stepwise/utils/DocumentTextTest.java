@@ -0,0 +1,54 @@
+package com.github.stepwise.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DocumentTextTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void extract_ShouldReadParagraphsAndTables_FromDocx() throws IOException {
+        Path docx = docx();
+
+        assertEquals("Introduction\nGoals\ncell", DocumentText.extract(docx, 7000));
+    }
+
+    @Test
+    void extract_ShouldStopAtCharacterLimit_FromDocx() throws IOException {
+        assertEquals("Intro", DocumentText.extract(docx(), 5));
+    }
+
+    @Test
+    void extract_ShouldRejectUnknownFormat() throws IOException {
+        Path text = directory.resolve("notes.pdf");
+        Files.writeString(text, "not really a pdf", StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> DocumentText.extract(text, 7000));
+    }
+
+    private Path docx() throws IOException {
+        Path docx = directory.resolve("report.docx");
+        try (XWPFDocument document = new XWPFDocument(); OutputStream out = Files.newOutputStream(docx)) {
+            document.createParagraph().createRun().setText("Introduction");
+            document.createParagraph().createRun().setText("Goals");
+            XWPFTable table = document.createTable(1, 1);
+            table.getRow(0).getCell(0).setText("cell");
+            document.write(out);
+        }
+        return docx;
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.github.stepwise.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.stepwise.configuration.JwtConfigurationProperties;
+import com.github.stepwise.entity.User;
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.utils.JwtValidationResult.Failure;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-key-that-is-at-least-32-characters-long";
+
+    private JwtConfigurationProperties config;
+
+    private JwtUtil jwtUtil;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        config = new JwtConfigurationProperties();
+        config.setSecret(SECRET);
+        config.setExpiration(60_000);
+
+        jwtUtil = new JwtUtil(config);
+        jwtUtil.init();
+
+        user = User.builder().id(5L).username("teacher").role(UserRole.TEACHER).tokenVersion(3).build();
+    }
+
+    @Test
+    void validate_WithValidToken_ShouldReturnClaims() {
+        JwtValidationResult result = jwtUtil.validate(jwtUtil.generateToken(user));
+
+        assertTrue(result.isValid());
+        assertEquals("teacher", result.claims().getSubject());
+        assertEquals(5L, result.claims().get(JwtUtil.USER_ID_CLAIM, Long.class));
+        assertEquals("TEACHER", result.claims().get(JwtUtil.ROLE_CLAIM, String.class));
+        assertEquals(3, result.claims().get(JwtUtil.TOKEN_VERSION_CLAIM, Integer.class));
+    }
+
+    @Test
+    void validate_WithExpiredToken_ShouldReportExpired() {
+        config.setExpiration(-1_000);
+
+        JwtValidationResult result = jwtUtil.validate(jwtUtil.generateToken(user));
+
+        assertFalse(result.isValid());
+        assertEquals(Failure.EXPIRED, result.failure());
+    }
+
+    @Test
+    void validate_WithForeignSignature_ShouldReportInvalidSignature() {
+        JwtConfigurationProperties otherConfig = new JwtConfigurationProperties();
+        otherConfig.setSecret("another-secret-key-that-is-at-least-32-characters");
+        otherConfig.setExpiration(60_000);
+        JwtUtil other = new JwtUtil(otherConfig);
+        other.init();
+
+        JwtValidationResult result = jwtUtil.validate(other.generateToken(user));
+
+        assertEquals(Failure.INVALID_SIGNATURE, result.failure());
+    }
+
+    @Test
+    void validate_WithGarbage_ShouldReportMalformed() {
+        assertEquals(Failure.MALFORMED, jwtUtil.validate("not-a-jwt").failure());
+    }
+
+    @Test
+    void validate_WithEmptyToken_ShouldReportEmpty() {
+        assertEquals(Failure.EMPTY, jwtUtil.validate("").failure());
+    }
+
+}
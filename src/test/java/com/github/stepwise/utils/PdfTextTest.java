@@ -0,0 +1,71 @@
+package com.github.stepwise.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PdfTextTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void extract_ShouldReturnTextOfAllPages_WhenWithinLimit() throws IOException {
+        Path pdf = write(3);
+
+        String text = PdfText.extract(pdf, 7000);
+
+        assertTrue(text.startsWith("Chapter 1"));
+        assertTrue(text.contains("Chapter 3"));
+    }
+
+    @Test
+    void extract_ShouldStopAtCharacterLimit() throws IOException {
+        Path pdf = write(3);
+
+        String text = PdfText.extract(pdf, 5);
+
+        assertEquals("Chapt", text);
+    }
+
+    @Test
+    void extract_ShouldReturnEmptyString_ForDocumentWithoutText() throws IOException {
+        Path pdf = directory.resolve("blank.pdf");
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage());
+            document.save(pdf.toFile());
+        }
+
+        assertEquals("", PdfText.extract(pdf, 7000));
+    }
+
+    private Path write(int pages) throws IOException {
+        Path pdf = directory.resolve("report.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 1; i <= pages; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    content.newLineAtOffset(72, 700);
+                    content.showText("Chapter " + i);
+                    content.endText();
+                }
+            }
+            document.save(pdf.toFile());
+        }
+        return pdf;
+    }
+
+}
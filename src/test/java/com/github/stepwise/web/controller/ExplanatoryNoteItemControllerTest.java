@@ -0,0 +1,89 @@
+package com.github.stepwise.web.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.github.stepwise.entity.UserRole;
+import com.github.stepwise.security.AppUserDetails;
+import com.github.stepwise.service.ExplanatoryNoteItemService;
+import com.github.stepwise.service.ExplanatoryNoteItemService.ItemFile;
+import com.github.stepwise.service.SummaryJobService;
+
+import io.minio.StatObjectResponse;
+
+@ExtendWith(MockitoExtension.class)
+class ExplanatoryNoteItemControllerTest {
+
+    @Mock
+    private ExplanatoryNoteItemService explanatoryNoteItemService;
+
+    @Mock
+    private SummaryJobService summaryJobService;
+
+    private ExplanatoryNoteItemController controller;
+
+    private final AppUserDetails student = new AppUserDetails(1L, "student", null, UserRole.STUDENT);
+
+    private final ItemFile file = new ItemFile(10L, "report.pdf", "blobs/abc", Instant.parse("2026-01-01T00:00:00Z"));
+
+    @BeforeEach
+    void setUp() throws Exception {
+        controller = new ExplanatoryNoteItemController(explanatoryNoteItemService, summaryJobService);
+
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.size()).thenReturn(4L);
+        when(stat.contentType()).thenReturn("application/pdf");
+
+        when(explanatoryNoteItemService.resolveAccessibleUserId(null, 1L, UserRole.STUDENT)).thenReturn(1L);
+        when(explanatoryNoteItemService.openCachedItemFile(file)).thenReturn(Optional.empty());
+        when(explanatoryNoteItemService.statItemFile(file)).thenReturn(stat);
+        when(explanatoryNoteItemService.openItemFile(file, 0, null))
+                .thenReturn(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4 }));
+    }
+
+    @Test
+    void downloadItemFile_ShouldMarkHistoryFileImmutable() throws Exception {
+        when(explanatoryNoteItemService.getItemFileMetadata(1L, UserRole.STUDENT, 2L, 3L, 10L)).thenReturn(file);
+
+        ResponseEntity<StreamingResponseBody> response = download(10L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("max-age=31536000, private, immutable", response.getHeaders().getCacheControl());
+        assertEquals("\"h-10\"", response.getHeaders().getETag());
+    }
+
+    @Test
+    void downloadItemFile_ShouldRevalidateLatestFile() throws Exception {
+        when(explanatoryNoteItemService.getItemFileMetadata(1L, UserRole.STUDENT, 2L, 3L, null)).thenReturn(file);
+
+        ResponseEntity<StreamingResponseBody> response = download(null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+        assertEquals("\"h-10\"", response.getHeaders().getETag());
+    }
+
+    private ResponseEntity<StreamingResponseBody> download(Long historyId) throws Exception {
+        ServletWebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest("GET", "/file"),
+                new MockHttpServletResponse());
+        return controller.downloadItemFile(student, null, 2L, 3L, historyId, null, null, webRequest);
+    }
+
+}